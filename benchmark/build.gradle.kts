@@ -0,0 +1,23 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    labyApi("api")
+    jmh(project(":core"))
+}
+
+// The corpus is the load test's chat sample; one file keeps both modules on the same traffic.
+sourceSets.named("jmh") {
+    resources.srcDir(project(":loadtest").file("src/main/resources"))
+}
+
+jmh {
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    warmup.set("2s")
+    iterations.set(5)
+    timeOnIteration.set("2s")
+    resultFormat.set("TEXT")
+}
\ No newline at end of file
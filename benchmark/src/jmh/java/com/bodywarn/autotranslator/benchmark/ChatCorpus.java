@@ -0,0 +1,54 @@
+package com.bodywarn.autotranslator.benchmark;
+
+import com.bodywarn.autotranslator.chat.ChatNormalizer;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Multilingual chat lines as the client receives them, plus their cleaned form. The lines are the
+// load test's chat sample, so both modules measure the same traffic.
+@State(Scope.Benchmark)
+public class ChatCorpus {
+
+  private static final String CORPUS = "/chat-sample.log";
+
+  String[] rawLines;
+  String[] cleanedLines;
+
+  @Setup
+  public void load() throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (InputStream input = ChatCorpus.class.getResourceAsStream(CORPUS)) {
+      if (input == null) {
+        throw new IOException("Missing " + CORPUS);
+      }
+
+      BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          lines.add(line);
+        }
+      }
+    }
+
+    ChatNormalizer normalizer = new ChatNormalizer();
+    this.rawLines = lines.toArray(new String[0]);
+    this.cleanedLines = new String[this.rawLines.length];
+    for (int i = 0; i < this.rawLines.length; i++) {
+      this.cleanedLines[i] = normalizer.normalize(this.rawLines[i]);
+    }
+  }
+
+  int size() {
+    return this.rawLines.length;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.bodywarn.autotranslator.benchmark;
+
+import com.bodywarn.autotranslator.chat.ChatNormalizer;
+import com.bodywarn.autotranslator.detect.LanguageDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+// Per-message work on the chat thread: what ChatHoverListener.cleanMessage and
+// TranslationService.detectLanguage delegate to, and the cache key built for every line.
+// detectLanguageRegex runs the detector LanguageDetector replaced over the same corpus.
+@State(Scope.Thread)
+public class ChatPathBenchmark {
+
+  private final ChatNormalizer normalizer = new ChatNormalizer();
+  private final LanguageDetector detector = new LanguageDetector();
+  private final RegexLanguageDetector regexDetector = new RegexLanguageDetector();
+
+  private int cursor;
+
+  @Benchmark
+  public String cleanMessage(ChatCorpus corpus) {
+    return this.normalizer.normalize(corpus.rawLines[this.next(corpus)]);
+  }
+
+  @Benchmark
+  public String detectLanguage(ChatCorpus corpus) {
+    return this.detector.detect(corpus.cleanedLines[this.next(corpus)]);
+  }
+
+  @Benchmark
+  public String detectLanguageRegex(ChatCorpus corpus) {
+    return this.regexDetector.detect(corpus.cleanedLines[this.next(corpus)]);
+  }
+
+  @Benchmark
+  public String cacheKey(ChatCorpus corpus) {
+    return corpus.cleanedLines[this.next(corpus)] + "|" + "en";
+  }
+
+  private int next(ChatCorpus corpus) {
+    int index = this.cursor;
+    this.cursor = index + 1 == corpus.size() ? 0 : index + 1;
+    return index;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.bodywarn.autotranslator.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// The keyword regex detector TranslationService used before LanguageDetector, kept only as the
+// baseline for ChatPathBenchmark. The per-detection log line is left out so the numbers measure
+// the matching alone.
+class RegexLanguageDetector {
+
+  private static final Map<String, String[]> LANGUAGE_KEYWORDS = new HashMap<>();
+
+  static {
+    LANGUAGE_KEYWORDS.put("da", new String[]{
+        "jeg", "mig", "dig", "hvordan", "også", "ikke", "med", "hej", "hvad", "dansk",
+        "være", "havde", "ville", "kunne", "skulle", "måske", "altså", "godt", "går"
+    });
+
+    LANGUAGE_KEYWORDS.put("de", new String[]{
+        "ich", "mich", "dich", "wie", "geht", "haben", "der", "die", "das", "ein",
+        "eine", "nicht", "und", "aber", "mit", "von", "für", "bist", "deutsch", "heute"
+    });
+
+    LANGUAGE_KEYWORDS.put("sv", new String[]{
+        "jag", "mig", "hur", "mår", "också", "inte", "med", "hej", "vad", "svenska",
+        "vara", "hade", "skulle", "kanske", "bra", "går"
+    });
+
+    LANGUAGE_KEYWORDS.put("no", new String[]{
+        "jeg", "meg", "deg", "hvordan", "også", "ikke", "med", "hei", "hva", "norsk",
+        "være", "hadde", "ville", "kunne", "skulle", "kanskje", "bra", "går"
+    });
+
+    LANGUAGE_KEYWORDS.put("fr", new String[]{
+        "je", "tu", "il", "elle", "nous", "vous", "ils", "elles", "est", "sont",
+        "le", "la", "les", "un", "une", "de", "du", "et", "mais", "pour", "avec", "français"
+    });
+
+    LANGUAGE_KEYWORDS.put("es", new String[]{
+        "yo", "tú", "él", "ella", "nosotros", "vosotros", "ellos", "ellas", "es", "son",
+        "el", "la", "los", "las", "un", "una", "de", "del", "pero", "para", "español"
+    });
+
+    LANGUAGE_KEYWORDS.put("it", new String[]{
+        "io", "tu", "lui", "lei", "noi", "voi", "loro", "è", "sono", "ha", "hanno",
+        "il", "la", "gli", "le", "un", "una", "di", "del", "per", "italiano"
+    });
+
+    LANGUAGE_KEYWORDS.put("pt", new String[]{
+        "eu", "você", "ele", "ela", "nós", "vós", "eles", "elas", "é", "são",
+        "o", "a", "os", "as", "um", "uma", "de", "do", "mas", "para", "português"
+    });
+
+    LANGUAGE_KEYWORDS.put("en", new String[]{
+        "the", "is", "are", "was", "were", "have", "has", "had", "will", "would",
+        "could", "should", "can", "may", "might", "what", "how", "when", "where", "english"
+    });
+  }
+
+  String detect(String text) {
+    if (text == null || text.trim().isEmpty()) {
+      return "auto";
+    }
+
+    String lowerText = text.toLowerCase();
+    Map<String, Integer> scores = new HashMap<>();
+
+    for (String lang : LANGUAGE_KEYWORDS.keySet()) {
+      scores.put(lang, 0);
+    }
+
+    for (Map.Entry<String, String[]> entry : LANGUAGE_KEYWORDS.entrySet()) {
+      String lang = entry.getKey();
+      String[] keywords = entry.getValue();
+
+      for (String keyword : keywords) {
+        String pattern = "\\b" + keyword + "\\b";
+        if (lowerText.matches(".*" + pattern + ".*")) {
+          scores.put(lang, scores.get(lang) + 1);
+        }
+      }
+    }
+
+    String detectedLang = "auto";
+    int maxScore = 0;
+
+    for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+      if (entry.getValue() > maxScore) {
+        maxScore = entry.getValue();
+        detectedLang = entry.getKey();
+      }
+    }
+
+    return maxScore == 0 ? "auto" : detectedLang;
+  }
+}
\ No newline at end of file
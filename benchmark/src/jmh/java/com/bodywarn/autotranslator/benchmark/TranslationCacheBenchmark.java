@@ -0,0 +1,74 @@
+package com.bodywarn.autotranslator.benchmark;
+
+import com.bodywarn.autotranslator.cache.TranslationCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+// Lookups and inserts from several threads at once, as the chat thread, the HTTP callbacks and
+// the disk loader hit the cache together in game.
+@State(Scope.Benchmark)
+public class TranslationCacheBenchmark {
+
+  private static final long CACHE_BYTES = 4L * 1024L * 1024L;
+
+  private TranslationCache cache;
+  private String[] keys;
+  private String[] values;
+
+  @Setup
+  public void fill(ChatCorpus corpus) {
+    this.cache = new TranslationCache(CACHE_BYTES, 0L);
+    this.keys = new String[corpus.size()];
+    this.values = new String[corpus.size()];
+    for (int i = 0; i < corpus.size(); i++) {
+      this.keys[i] = corpus.cleanedLines[i] + "|en";
+      this.values[i] = "[en] " + corpus.cleanedLines[i];
+      this.cache.put(this.keys[i], this.values[i]);
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String get(Cursor cursor) {
+    return this.cache.get(this.keys[cursor.next(this.keys.length)]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void put(Cursor cursor) {
+    int index = cursor.next(this.keys.length);
+    this.cache.put(this.keys[index], this.values[index]);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public String mixedGet(Cursor cursor) {
+    return this.cache.get(this.keys[cursor.next(this.keys.length)]);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public void mixedPut(Cursor cursor) {
+    int index = cursor.next(this.keys.length);
+    this.cache.put(this.keys[index], this.values[index]);
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    private int position;
+
+    int next(int size) {
+      int index = this.position;
+      this.position = index + 1 == size ? 0 : index + 1;
+      return index;
+    }
+  }
+}
\ No newline at end of file
@@ -37,9 +37,14 @@ labyMod {
 }
 
 subprojects {
-    plugins.apply("net.labymod.labygradle")
-    plugins.apply("net.labymod.labygradle.addon")
-
     group = rootProject.group
     version = rootProject.version
+
+    // The shared cache service and its wire format are plain Java and run without the game.
+    if (path in setOf(":cacheprotocol", ":cacheserver")) {
+        return@subprojects
+    }
+
+    plugins.apply("net.labymod.labygradle")
+    plugins.apply("net.labymod.labygradle.addon")
 }
\ No newline at end of file
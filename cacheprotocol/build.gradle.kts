@@ -0,0 +1,14 @@
+plugins {
+    `java-library`
+}
+
+// Wire format of the shared cache service. The server depends on this module; core compiles the
+// same sources into the addon jar. Plain Java with no dependencies, so the server never needs
+// the addon or the LabyMod API.
+repositories {
+    mavenCentral()
+}
+
+java {
+    toolchain.languageVersion.set(JavaLanguageVersion.of(17))
+}
\ No newline at end of file
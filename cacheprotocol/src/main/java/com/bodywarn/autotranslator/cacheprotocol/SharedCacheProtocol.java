@@ -0,0 +1,190 @@
+package com.bodywarn.autotranslator.cacheprotocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Binary bodies exchanged with the shared cache service. Lines travel as a 64-bit hash of their
+// text, never as the text itself; strings are DataOutput's length-prefixed UTF-8.
+//
+//   POST /get   request:  version, count, count x [hash, source, target]
+//               response: version, count, count x [found flag, translation if found]
+//   POST /put   request:  version, count, count x [hash, source, target, translation]
+public final class SharedCacheProtocol {
+
+  public static final int VERSION = 1;
+  public static final int MAX_BATCH = 256;
+  public static final int MAX_TRANSLATION_CHARS = 4096;
+  public static final String CONTENT_TYPE = "application/x-autotranslator-cache";
+
+  private SharedCacheProtocol() {
+  }
+
+  public static long hash(String text) {
+    byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    long hash = 0L;
+    for (int i = 0; i < Long.BYTES; i++) {
+      hash = (hash << 8) | (digest[i] & 0xFF);
+    }
+    return hash;
+  }
+
+  public static byte[] encodeGet(List<Key> keys) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + keys.size() * 16);
+    DataOutputStream data = header(bytes, keys.size());
+    for (Key key : keys) {
+      key.write(data);
+    }
+    return bytes.toByteArray();
+  }
+
+  public static List<Key> decodeGet(InputStream input) throws IOException {
+    DataInputStream data = new DataInputStream(input);
+    int count = readHeader(data);
+    List<Key> keys = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      keys.add(Key.read(data));
+    }
+    return keys;
+  }
+
+  // One entry per requested key, in request order; null marks a miss.
+  public static byte[] encodeGetResponse(List<String> translations) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + translations.size() * 32);
+    DataOutputStream data = header(bytes, translations.size());
+    for (String translation : translations) {
+      data.writeBoolean(translation != null);
+      if (translation != null) {
+        data.writeUTF(translation);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  public static List<String> decodeGetResponse(InputStream input) throws IOException {
+    DataInputStream data = new DataInputStream(input);
+    int count = readHeader(data);
+    List<String> translations = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      translations.add(data.readBoolean() ? data.readUTF() : null);
+    }
+    return translations;
+  }
+
+  public static byte[] encodePut(Map<Key, String> entries) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + entries.size() * 48);
+    DataOutputStream data = header(bytes, entries.size());
+    for (Map.Entry<Key, String> entry : entries.entrySet()) {
+      entry.getKey().write(data);
+      data.writeUTF(entry.getValue());
+    }
+    return bytes.toByteArray();
+  }
+
+  public static Map<Key, String> decodePut(InputStream input) throws IOException {
+    DataInputStream data = new DataInputStream(input);
+    int count = readHeader(data);
+    Map<Key, String> entries = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      entries.put(Key.read(data), data.readUTF());
+    }
+    return entries;
+  }
+
+  private static DataOutputStream header(ByteArrayOutputStream bytes, int count) throws IOException {
+    if (count > MAX_BATCH) {
+      throw new IOException("Batch of " + count + " exceeds " + MAX_BATCH);
+    }
+
+    DataOutputStream data = new DataOutputStream(bytes);
+    data.writeByte(VERSION);
+    data.writeShort(count);
+    return data;
+  }
+
+  private static int readHeader(DataInputStream data) throws IOException {
+    int version = data.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported shared cache version " + version);
+    }
+
+    int count = data.readUnsignedShort();
+    if (count > MAX_BATCH) {
+      throw new IOException("Batch of " + count + " exceeds " + MAX_BATCH);
+    }
+    return count;
+  }
+
+  public static final class Key {
+
+    private final long hash;
+    private final String sourceLang;
+    private final String targetLang;
+
+    public Key(long hash, String sourceLang, String targetLang) {
+      this.hash = hash;
+      this.sourceLang = sourceLang;
+      this.targetLang = targetLang;
+    }
+
+    public static Key of(String text, String sourceLang, String targetLang) {
+      return new Key(hash(text), sourceLang, targetLang);
+    }
+
+    private static Key read(DataInputStream data) throws IOException {
+      return new Key(data.readLong(), data.readUTF(), data.readUTF());
+    }
+
+    private void write(DataOutputStream data) throws IOException {
+      data.writeLong(this.hash);
+      data.writeUTF(this.sourceLang);
+      data.writeUTF(this.targetLang);
+    }
+
+    public long getHash() {
+      return hash;
+    }
+
+    public String getSourceLang() {
+      return sourceLang;
+    }
+
+    public String getTargetLang() {
+      return targetLang;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+
+      Key key = (Key) other;
+      return hash == key.hash && sourceLang.equals(key.sourceLang) && targetLang.equals(key.targetLang);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(hash, sourceLang, targetLang);
+    }
+  }
+}
\ No newline at end of file
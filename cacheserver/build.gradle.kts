@@ -0,0 +1,31 @@
+plugins {
+    java
+}
+
+repositories {
+    mavenCentral()
+}
+
+java {
+    toolchain.languageVersion.set(JavaLanguageVersion.of(17))
+}
+
+dependencies {
+    implementation(project(":cacheprotocol"))
+
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.named<Test>("test") {
+    useJUnitPlatform()
+}
+
+// Standalone service; it shares only the :cacheprotocol wire format with the addon.
+tasks.register<JavaExec>("runCacheServer") {
+    group = "application"
+    description = "Runs the shared translation cache service."
+    mainClass.set("com.bodywarn.autotranslator.cacheserver.SharedCacheServer")
+    classpath = sourceSets["main"].runtimeClasspath
+    args = (project.findProperty("cacheServerArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+}
\ No newline at end of file
@@ -0,0 +1,266 @@
+package com.bodywarn.autotranslator.cacheserver;
+
+import com.bodywarn.autotranslator.cacheprotocol.SharedCacheProtocol;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Small in-memory translation cache shared by every client pointed at it. Entries are keyed by
+// (text hash, source, target) and evicted least recently used past the entry limit; nothing is
+// written to disk, each client keeps its own persistent cache.
+//
+//   ./gradlew :cacheserver:runCacheServer -PcacheServerArgs="--port=8787 --entries=200000"
+//
+// Options: --bind=<address> (default loopback), --port=<port>, --entries=<max entries>.
+// Tests and the load harness start one in-process on a loopback port instead.
+//
+// There is no authentication: anyone who can reach the port can read entries and, through /put,
+// write any translation for any line. Bind to another address (--bind=0.0.0.0) only on a network
+// where every host is trusted, or put the service behind a proxy that authenticates clients.
+public final class SharedCacheServer {
+
+  private static final int DEFAULT_PORT = 8787;
+  private static final int DEFAULT_MAX_ENTRIES = 200_000;
+  private static final int MAX_BODY_BYTES = 1 << 20;
+
+  private final InetSocketAddress address;
+  private final LinkedHashMap<SharedCacheProtocol.Key, String> entries;
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder stores = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  private HttpServer server;
+  private ExecutorService executor;
+
+  public SharedCacheServer(InetSocketAddress address, int maxEntries) {
+    this.address = address;
+    this.entries = new LinkedHashMap<SharedCacheProtocol.Key, String>(1024, 0.75F, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<SharedCacheProtocol.Key, String> eldest) {
+        return this.size() > maxEntries;
+      }
+    };
+  }
+
+  // Loopback instance on a free port, for tests and the load harness.
+  public static SharedCacheServer local(int maxEntries) {
+    return new SharedCacheServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), maxEntries);
+  }
+
+  public static void main(String[] args) throws IOException {
+    Map<String, String> options = parseOptions(args);
+    int port = Integer.parseInt(options.getOrDefault("port", String.valueOf(DEFAULT_PORT)));
+    int maxEntries = Integer.parseInt(options.getOrDefault("entries", String.valueOf(DEFAULT_MAX_ENTRIES)));
+    String bind = options.get("bind");
+
+    InetSocketAddress address = bind == null
+        ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+        : new InetSocketAddress(bind, port);
+    SharedCacheServer server = new SharedCacheServer(address, maxEntries);
+    server.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "SharedCache-Shutdown"));
+    System.out.println("[AutoTranslator] Shared cache listening on " + server.getAddress() + " (max "
+        + maxEntries + " entries)");
+    if (!server.getAddress().getAddress().isLoopbackAddress()) {
+      System.out.println("[AutoTranslator] Warning: the shared cache is unauthenticated and reachable from "
+          + "other hosts; any of them can store translations");
+    }
+  }
+
+  public void start() throws IOException {
+    this.server = HttpServer.create(this.address, 0);
+    this.executor = Executors.newFixedThreadPool(4, runnable -> {
+      Thread thread = new Thread(runnable, "SharedCache-Http");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/get", exchange -> this.handle(exchange, this::get));
+    this.server.createContext("/put", exchange -> this.handle(exchange, this::put));
+    this.server.createContext("/stats", this::stats);
+    this.server.start();
+  }
+
+  public void stop() {
+    if (this.server != null) {
+      this.server.stop(0);
+      this.executor.shutdownNow();
+    }
+  }
+
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  public String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long getLookups() {
+    return lookups.sum();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getStores() {
+    return stores.sum();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  private byte[] get(InputStream body) throws IOException {
+    List<SharedCacheProtocol.Key> keys = SharedCacheProtocol.decodeGet(body);
+    List<String> translations = new ArrayList<>(keys.size());
+    synchronized (this.entries) {
+      for (SharedCacheProtocol.Key key : keys) {
+        translations.add(this.entries.get(key));
+      }
+    }
+
+    this.lookups.add(keys.size());
+    this.hits.add(translations.stream().filter(translation -> translation != null).count());
+    return SharedCacheProtocol.encodeGetResponse(translations);
+  }
+
+  private byte[] put(InputStream body) throws IOException {
+    Map<SharedCacheProtocol.Key, String> received = SharedCacheProtocol.decodePut(body);
+    synchronized (this.entries) {
+      this.entries.putAll(received);
+    }
+
+    this.stores.add(received.size());
+    return new byte[0];
+  }
+
+  private void handle(HttpExchange exchange, Handler handler) throws IOException {
+    try {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        this.sendEmpty(exchange, 405);
+        return;
+      }
+
+      byte[] response;
+      try (InputStream body = exchange.getRequestBody()) {
+        response = handler.handle(new LimitedInputStream(body, MAX_BODY_BYTES));
+      } catch (IOException | RuntimeException e) {
+        this.rejected.increment();
+        this.sendEmpty(exchange, 400);
+        return;
+      }
+
+      exchange.getResponseHeaders().set("Content-Type", SharedCacheProtocol.CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, response.length == 0 ? -1 : response.length);
+      if (response.length > 0) {
+        try (OutputStream output = exchange.getResponseBody()) {
+          output.write(response);
+        }
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void stats(HttpExchange exchange) throws IOException {
+    try {
+      byte[] body = String.format("entries=%d lookups=%d hits=%d stores=%d rejected=%d%n", this.size(),
+          this.getLookups(), this.getHits(), this.getStores(), this.getRejected()).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream output = exchange.getResponseBody()) {
+        output.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private void sendEmpty(HttpExchange exchange, int status) throws IOException {
+    exchange.sendResponseHeaders(status, -1);
+  }
+
+  private static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Unexpected argument: " + arg);
+      }
+
+      int equals = arg.indexOf('=');
+      if (equals < 0) {
+        options.put(arg.substring(2), "true");
+      } else {
+        options.put(arg.substring(2, equals), arg.substring(equals + 1));
+      }
+    }
+    return options;
+  }
+
+  @FunctionalInterface
+  private interface Handler {
+
+    byte[] handle(InputStream body) throws IOException;
+  }
+
+  // Refuses bodies past the size limit instead of buffering whatever a client sends.
+  private static final class LimitedInputStream extends InputStream {
+
+    private final InputStream input;
+    private long remaining;
+
+    private LimitedInputStream(InputStream input, long limit) {
+      this.input = input;
+      this.remaining = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (this.remaining <= 0L) {
+        throw new IOException("Request body too large");
+      }
+
+      int value = this.input.read();
+      if (value >= 0) {
+        this.remaining--;
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      if (this.remaining <= 0L) {
+        throw new IOException("Request body too large");
+      }
+
+      int read = this.input.read(buffer, offset, (int) Math.min(length, this.remaining));
+      if (read > 0) {
+        this.remaining -= read;
+      }
+      return read;
+    }
+  }
+}
\ No newline at end of file
@@ -1,13 +1,45 @@
+import java.util.zip.ZipFile
 import net.labymod.labygradle.common.extension.LabyModAnnotationProcessorExtension.ReferenceType
 
 dependencies {
     labyProcessor()
     api(project(":api"))
 
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testImplementation(project(":cacheserver"))
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
     // An example of how to add an external dependency that is used by the addon.
     // addonMavenDependency("org.jeasy:easy-random:5.0.0")
 }
 
+// The shared cache wire format lives in :cacheprotocol so the server builds without the addon.
+// Its sources are compiled into core, so the addon jar carries them no matter how project
+// dependencies are packaged; the check below fails the build if they ever go missing.
+sourceSets.named("main") {
+    java.srcDir(project(":cacheprotocol").file("src/main/java"))
+}
+
+val verifyCacheProtocolPackaged by tasks.registering {
+    val jar = tasks.named<Jar>("jar")
+    dependsOn(jar)
+    doLast {
+        val entry = "com/bodywarn/autotranslator/cacheprotocol/SharedCacheProtocol.class"
+        val archive = jar.get().archiveFile.get().asFile
+        ZipFile(archive).use { zip ->
+            check(zip.getEntry(entry) != null) { "$entry is missing from ${archive.name}" }
+        }
+    }
+}
+
+tasks.named("check") {
+    dependsOn(verifyCacheProtocolPackaged)
+}
+
 labyModAnnotationProcessor {
     referenceType = ReferenceType.DEFAULT
+}
+
+tasks.named<Test>("test") {
+    useJUnitPlatform()
 }
\ No newline at end of file
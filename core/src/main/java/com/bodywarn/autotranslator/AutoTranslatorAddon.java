@@ -1,6 +1,9 @@
 package com.bodywarn.autotranslator;
 
+import com.bodywarn.autotranslator.command.AutoTranslatorCommand;
+import com.bodywarn.autotranslator.hud.TranslationMetricsWidget;
 import com.bodywarn.autotranslator.settings.TranslatorAddon;
+import net.labymod.api.Constants;
 import net.labymod.api.addon.LabyAddon;
 import net.labymod.api.models.addon.annotation.AddonMain;
 
@@ -9,16 +12,34 @@ public class AutoTranslatorAddon extends LabyAddon<TranslatorAddon> {
 
   private TranslationService translationService;
   private ChatHoverListener chatHoverListener;
+  private TooltipRenderer tooltipRenderer;
+  private HoverUpdateQueue hoverUpdateQueue;
+  private SessionListener sessionListener;
 
   @Override
   protected void enable() {
     this.registerSettingCategory();
 
-    this.translationService = new TranslationService();
+    this.translationService = new TranslationService(
+        this.configuration(),
+        Constants.Files.CONFIGS.resolve("autotranslator")
+    );
+
+    this.hoverUpdateQueue = new HoverUpdateQueue(this);
+    this.registerListener(this.hoverUpdateQueue);
 
     this.chatHoverListener = new ChatHoverListener(this);
     this.registerListener(this.chatHoverListener);
 
+    this.tooltipRenderer = new TooltipRenderer(this);
+    this.registerListener(this.tooltipRenderer);
+
+    this.sessionListener = new SessionListener(this);
+    this.registerListener(this.sessionListener);
+
+    this.labyAPI().hudWidgetRegistry().register(new TranslationMetricsWidget(this));
+    this.registerCommand(new AutoTranslatorCommand(this));
+
     this.logger().info("Auto Translator Addon enabled!");
     this.logger().info("Hover over chat messages to see translations!");
   }
@@ -37,4 +58,8 @@ public class AutoTranslatorAddon extends LabyAddon<TranslatorAddon> {
   public ChatHoverListener getChatHoverListener() {
     return this.chatHoverListener;
   }
+
+  public HoverUpdateQueue getHoverUpdateQueue() {
+    return this.hoverUpdateQueue;
+  }
 }
\ No newline at end of file
@@ -1,5 +1,14 @@
 package com.bodywarn.autotranslator;
 
+import com.bodywarn.autotranslator.chat.ChatNormalizer;
+import com.bodywarn.autotranslator.metrics.TranslationMetrics;
+import com.bodywarn.autotranslator.schedule.DroppedTranslationException;
+import com.bodywarn.autotranslator.settings.Language;
+import com.bodywarn.autotranslator.settings.TranslationMode;
+import com.bodywarn.autotranslator.trace.TraceRecorder;
+import com.bodywarn.autotranslator.trace.TraceRecorder.Stage;
+import net.labymod.api.Laby;
+import net.labymod.api.client.network.server.ServerData;
 import net.labymod.api.event.Subscribe;
 import net.labymod.api.event.client.chat.ChatReceiveEvent;
 import net.labymod.api.client.component.Component;
@@ -7,17 +16,31 @@ import net.labymod.api.client.component.event.HoverEvent;
 import net.labymod.api.client.component.format.NamedTextColor;
 import net.labymod.api.client.component.serializer.plain.PlainTextComponentSerializer;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
 
 public class ChatHoverListener {
 
+  private static final long HOVER_DWELL_MILLIS = 150L;
+  private static final long HOVER_RETRY_MILLIS = 1000L;
+  private static final int MAX_PENDING_HOVER_LINES = 200;
+  private static final int MIN_MESSAGE_LENGTH = 3;
+
   private final AutoTranslatorAddon addon;
-  private final Map<String, String> translationCache = new ConcurrentHashMap<>();
   private final PlainTextComponentSerializer plainTextSerializer = PlainTextComponentSerializer.plainText();
+  private final ChatNormalizer chatNormalizer = new ChatNormalizer();
+  private final Deque<PendingLine> pendingHoverLines = new ArrayDeque<>();
+  private final StringBuilder senderBuffer = new StringBuilder(16);
+
+  private Component hoveredComponent;
+  private long hoverStartedAt;
 
   public ChatHoverListener(AutoTranslatorAddon addon) {
     this.addon = addon;
+
+    this.chatNormalizer.setServerProfiles(addon.configuration().serverPrefixFormats().get());
+    addon.configuration().serverPrefixFormats().addChangeListener(this.chatNormalizer::setServerProfiles);
   }
 
   @Subscribe
@@ -27,129 +50,216 @@ public class ChatHoverListener {
     }
 
     try {
+      long receivedAt = System.nanoTime();
       String originalMessage = event.chatMessage().getPlainText();
+      this.addon.getTranslationService().lineReceived();
 
       if (originalMessage == null || originalMessage.trim().isEmpty()) {
         return;
       }
 
+      TranslationMetrics metrics = this.addon.getTranslationService().getMetrics();
+      metrics.recordReceived();
+
       String cleanedText = cleanMessage(originalMessage);
+      String sender = this.senderBuffer.length() > 0 ? this.senderBuffer.toString() : null;
 
-      this.addon.logger().info("Original: '" + originalMessage + "'");
-      this.addon.logger().info("Cleaned: '" + cleanedText + "'");
+      TraceRecorder trace = this.addon.getTranslationService().getTrace();
+      trace.record(Stage.RECEIVED, cleanedText, originalMessage);
 
-      if (cleanedText.length() < 3) {
-        this.addon.logger().info("Message too short after cleaning, skipping");
+      Language targetLanguage = this.addon.configuration().targetLanguage().get();
+      if (!shouldTranslate(cleanedText, this.addon.getTranslationService(), targetLanguage)) {
+        metrics.recordSkipped(cleanedText.length() < MIN_MESSAGE_LENGTH);
+        trace.record(Stage.SKIPPED, cleanedText);
         return;
       }
+      this.addon.getTranslationService().observeLine(cleanedText);
 
-      if (cleanedText.startsWith("/") || cleanedText.startsWith("!")) {
+      Component messageComponent = event.chatMessage().component();
+
+      if (this.addon.configuration().translationMode().get() == TranslationMode.ON_HOVER) {
+        trackForHover(messageComponent, cleanedText, sender);
         return;
       }
 
-      Component messageComponent = event.chatMessage().component();
-      final String textToTranslate = cleanedText;
+      requestTranslation(messageComponent, cleanedText, sender, false, receivedAt);
+    } catch (Exception e) {
+      this.addon.logger().error("Error in chat listener", e);
+    }
+  }
+
+  // Called every frame from TooltipRenderer with the line under the cursor (or null).
+  public void onLineHovered(Component component) {
+    long now = System.currentTimeMillis();
+    if (component != this.hoveredComponent) {
+      this.hoveredComponent = component;
+      this.hoverStartedAt = now;
+      return;
+    }
+
+    if (component == null || now - this.hoverStartedAt < HOVER_DWELL_MILLIS) {
+      return;
+    }
+
+    PendingLine line = takePendingLine(component, now);
+    if (line != null) {
+      requestTranslation(component, line.text, line.sender, true, System.nanoTime());
+    }
+  }
+
+  private void trackForHover(Component component, String text, String sender) {
+    if (component == null) {
+      return;
+    }
+
+    addPendingLine(new PendingLine(component, text, sender, 0L));
+    addTranslatingHover(component);
+  }
+
+  // A hover request the scheduler dropped leaves the line reading "Translating…"; it goes back to
+  // the pending lines so a later hover asks again, after a pause so a full queue is not hammered.
+  private void retryOnHover(Component component, String text, String sender) {
+    addPendingLine(new PendingLine(component, text, sender, System.currentTimeMillis() + HOVER_RETRY_MILLIS));
+  }
+
+  private void addPendingLine(PendingLine line) {
+    synchronized (this.pendingHoverLines) {
+      if (this.pendingHoverLines.size() >= MAX_PENDING_HOVER_LINES) {
+        this.pendingHoverLines.pollFirst();
+      }
+      this.pendingHoverLines.addLast(line);
+    }
+  }
+
+  private PendingLine takePendingLine(Component component, long now) {
+    synchronized (this.pendingHoverLines) {
+      Iterator<PendingLine> iterator = this.pendingHoverLines.descendingIterator();
+      while (iterator.hasNext()) {
+        PendingLine line = iterator.next();
+        if (line.component == component) {
+          if (now < line.retryAt) {
+            return null;
+          }
+          iterator.remove();
+          return line;
+        }
+      }
+    }
+    return null;
+  }
 
-      this.addon.getTranslationService()
-          .translateAsync(textToTranslate, this.addon.configuration().targetLanguage().get())
+  private void requestTranslation(Component messageComponent, String textToTranslate, String sender,
+      boolean priority, long startedAt) {
+    try {
+      TranslationService service = this.addon.getTranslationService();
+      Language targetLanguage = this.addon.configuration().targetLanguage().get();
+      service.translateAsync(textToTranslate, targetLanguage, priority, sender)
           .thenAccept(translated -> {
+            // The component is applied on the client thread; see HoverUpdateQueue.
+            HoverUpdateQueue hoverUpdates = this.addon.getHoverUpdateQueue();
             if (translated != null && !translated.isEmpty()) {
               if (translated.trim().equalsIgnoreCase(textToTranslate.trim())) {
-                this.addon.logger().info("Text is already in target language");
-                addAlreadyTranslatedHover(messageComponent, textToTranslate);
+                hoverUpdates.post(messageComponent, Hovers.ALREADY_TRANSLATED_HOVER, textToTranslate, "unchanged",
+                    startedAt);
               } else {
-                this.addon.logger().info("Translation: '" + textToTranslate + "' -> '" + translated + "'");
-                translationCache.put(textToTranslate, translated);
-                addHoverToComponent(messageComponent, textToTranslate, translated);
+                hoverUpdates.post(messageComponent, HoverEvent.showText(translationHover(translated)),
+                    textToTranslate, "translated", startedAt);
               }
             } else {
-              this.addon.logger().warn("Translation failed or returned empty text");
+              service.getTrace().record(Stage.FAILED, textToTranslate, "empty translation");
             }
           })
           .exceptionally(throwable -> {
+            if (throwable.getCause() instanceof DroppedTranslationException) {
+              if (priority) {
+                retryOnHover(messageComponent, textToTranslate, sender);
+              }
+              return null;
+            }
             this.addon.logger().error("Translation error", throwable);
             return null;
           });
     } catch (Exception e) {
-      this.addon.logger().error("Error in chat listener", e);
+      this.addon.logger().error("Error requesting translation", e);
     }
   }
 
 
-  private String cleanMessage(String message) {
-    if (message == null) {
-      return "";
-    }
-
-    String cleaned = message.trim();
-
-    if (cleaned.contains(">")) {
-      int index = cleaned.indexOf('>');
-      if (index < cleaned.length() - 1) {
-        cleaned = cleaned.substring(index + 1).trim();
-      }
+  // Lines too short for the backends still count when the phrase table knows them ("gg", "hi").
+  public static boolean shouldTranslate(String cleanedText, TranslationService service, Language targetLanguage) {
+    if (cleanedText.startsWith("/") || cleanedText.startsWith("!")) {
+      return false;
     }
-    else if (cleaned.contains(":")) {
-      int index = cleaned.indexOf(':');
-      if (index < cleaned.length() - 1) {
-        cleaned = cleaned.substring(index + 1).trim();
-      }
-    }
-
-    cleaned = cleaned.replaceAll("§.", "");
-
-    cleaned = cleaned.replaceAll("chat\\.type\\.\\w+", "");
+    return cleanedText.length() >= MIN_MESSAGE_LENGTH || service.isKnownPhrase(cleanedText, targetLanguage);
+  }
 
-    cleaned = cleaned.replaceAll("\\[Copy\\]", "");
-    cleaned = cleaned.replaceAll("\\[\\w+\\]", "");
+  private String cleanMessage(String message) {
+    return this.chatNormalizer.normalize(message, currentServerHost(), this.senderBuffer);
+  }
 
-    return cleaned.trim();
+  private static String currentServerHost() {
+    ServerData serverData = Laby.labyAPI().serverController().getCurrentServerData();
+    return serverData == null ? null : serverData.address().getHost();
   }
 
-  private void addHoverToComponent(Component component, String originalText, String translatedText) {
+  // Runs on the chat thread, which already owns the component.
+  private void addTranslatingHover(Component component) {
     try {
-      if (component == null) {
-        this.addon.logger().warn("Component is null, cannot add hover");
-        return;
-      }
-
-      Component hoverComponent = Component.text()
-          .append(Component.text("Translation:", NamedTextColor.GOLD))
-          .append(Component.newline())
-          .append(Component.text(translatedText, NamedTextColor.WHITE))
-          .build();
-
-      component.hoverEvent(HoverEvent.showText(hoverComponent));
-
-      this.addon.logger().info("Hover added successfully");
+      component.hoverEvent(Hovers.TRANSLATING_HOVER);
     } catch (Exception e) {
-      this.addon.logger().error("Error adding hover", e);
+      this.addon.logger().error("Error adding translating hover", e);
     }
   }
 
-  private void addAlreadyTranslatedHover(Component component, String text) {
-    try {
-      if (component == null) {
-        this.addon.logger().warn("Component is null, cannot add hover");
-        return;
-      }
-
-      Component hoverComponent = Component.text()
-          .append(Component.text("Already in target language", NamedTextColor.GREEN))
-          .append(Component.newline())
-          .append(Component.text("(No translation needed)", NamedTextColor.GRAY))
-          .build();
-
-      component.hoverEvent(HoverEvent.showText(hoverComponent));
+  private static Component translationHover(String translatedText) {
+    return Component.text()
+        .append(Hovers.TRANSLATION_HEADER)
+        .append(Hovers.NEWLINE)
+        .append(Component.text(translatedText, NamedTextColor.WHITE))
+        .build();
+  }
 
-      this.addon.logger().info("Already-translated hover added successfully");
-    } catch (Exception e) {
-      this.addon.logger().error("Error adding already-translated hover", e);
+  public void clearPendingLines() {
+    synchronized (this.pendingHoverLines) {
+      this.pendingHoverLines.clear();
     }
   }
 
   public void clearCache() {
-    this.translationCache.clear();
+    this.addon.getTranslationService().clearCache();
     this.addon.logger().info("Translation cache cleared");
   }
+
+  // Hover parts that never change are built once and shared by every message. They live in a
+  // holder so shouldTranslate() stays usable where no client backs the component factories.
+  private static final class Hovers {
+
+    private static final Component TRANSLATION_HEADER = Component.text("Translation:", NamedTextColor.GOLD);
+    private static final Component NEWLINE = Component.newline();
+    private static final Component TRANSLATING = Component.text()
+        .append(Component.text("Translating…", NamedTextColor.GRAY))
+        .build();
+    private static final Component ALREADY_TRANSLATED = Component.text()
+        .append(Component.text("Already in target language", NamedTextColor.GREEN))
+        .append(NEWLINE)
+        .append(Component.text("(No translation needed)", NamedTextColor.GRAY))
+        .build();
+    private static final HoverEvent<Component> TRANSLATING_HOVER = HoverEvent.showText(TRANSLATING);
+    private static final HoverEvent<Component> ALREADY_TRANSLATED_HOVER = HoverEvent.showText(ALREADY_TRANSLATED);
+  }
+
+  private static final class PendingLine {
+
+    private final Component component;
+    private final String text;
+    private final String sender;
+    private final long retryAt;
+
+    private PendingLine(Component component, String text, String sender, long retryAt) {
+      this.component = component;
+      this.text = text;
+      this.sender = sender;
+      this.retryAt = retryAt;
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.bodywarn.autotranslator;
+
+import com.bodywarn.autotranslator.trace.TraceRecorder.Stage;
+import net.labymod.api.client.component.Component;
+import net.labymod.api.client.component.event.HoverEvent;
+import net.labymod.api.event.Phase;
+import net.labymod.api.event.Subscribe;
+import net.labymod.api.event.client.lifecycle.GameTickEvent;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Finished translations arrive on executor threads, but chat components belong to the client
+// thread that draws them. Updates are posted here and applied at the end of each game tick, a
+// bounded number at a time so a chat flood cannot stall a frame.
+public class HoverUpdateQueue {
+
+  private static final int MAX_UPDATES_PER_TICK = 64;
+  private static final long MAX_NANOS_PER_TICK = 2_000_000L;
+
+  private final AutoTranslatorAddon addon;
+  private final ConcurrentLinkedQueue<HoverUpdate> updates = new ConcurrentLinkedQueue<>();
+
+  public HoverUpdateQueue(AutoTranslatorAddon addon) {
+    this.addon = addon;
+  }
+
+  public void post(Component component, HoverEvent<Component> hover, String text, String detail,
+      long startedAt) {
+    if (component != null) {
+      this.updates.offer(new HoverUpdate(component, hover, text, detail, startedAt));
+    }
+  }
+
+  @Subscribe
+  public void onGameTick(GameTickEvent event) {
+    if (event.phase() != Phase.POST || this.updates.isEmpty()) {
+      return;
+    }
+
+    TranslationService service = this.addon.getTranslationService();
+    long started = System.nanoTime();
+    for (int applied = 0; applied < MAX_UPDATES_PER_TICK; applied++) {
+      HoverUpdate update = this.updates.poll();
+      if (update == null) {
+        return;
+      }
+
+      try {
+        update.component.hoverEvent(update.hover);
+        service.getTrace().record(Stage.HOVER_SET, update.text, update.detail);
+        service.getMetrics().recordHoverLatency(System.nanoTime() - update.startedAt);
+      } catch (Exception e) {
+        this.addon.logger().error("Error adding hover", e);
+      }
+
+      if (System.nanoTime() - started > MAX_NANOS_PER_TICK) {
+        return;
+      }
+    }
+  }
+
+  public void clear() {
+    this.updates.clear();
+  }
+
+  private static final class HoverUpdate {
+
+    private final Component component;
+    private final HoverEvent<Component> hover;
+    private final String text;
+    private final String detail;
+    private final long startedAt;
+
+    private HoverUpdate(Component component, HoverEvent<Component> hover, String text, String detail,
+        long startedAt) {
+      this.component = component;
+      this.hover = hover;
+      this.text = text;
+      this.detail = detail;
+      this.startedAt = startedAt;
+    }
+  }
+}
\ No newline at end of file
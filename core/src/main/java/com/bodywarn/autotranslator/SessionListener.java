@@ -0,0 +1,45 @@
+package com.bodywarn.autotranslator;
+
+import net.labymod.api.event.Subscribe;
+import net.labymod.api.event.client.lifecycle.GameShutdownEvent;
+import net.labymod.api.event.client.network.server.ServerDisconnectEvent;
+import net.labymod.api.event.client.network.server.ServerJoinEvent;
+import net.labymod.api.event.client.network.server.ServerSwitchEvent;
+
+// Leaving a server ends the chat session: nothing still waiting for a translation will be read.
+// Joining one starts prewarming the cache with the lines that server usually sends.
+public class SessionListener {
+
+  private final AutoTranslatorAddon addon;
+
+  public SessionListener(AutoTranslatorAddon addon) {
+    this.addon = addon;
+  }
+
+  @Subscribe
+  public void onServerJoin(ServerJoinEvent event) {
+    this.addon.getTranslationService().serverJoined(event.serverData().address().getHost());
+  }
+
+  @Subscribe
+  public void onServerDisconnect(ServerDisconnectEvent event) {
+    this.endSession();
+    this.addon.getTranslationService().serverLeft();
+  }
+
+  @Subscribe
+  public void onServerSwitch(ServerSwitchEvent event) {
+    this.endSession();
+  }
+
+  @Subscribe
+  public void onGameShutdown(GameShutdownEvent event) {
+    this.addon.getTranslationService().shutdown();
+  }
+
+  private void endSession() {
+    this.addon.getTranslationService().invalidateSession();
+    this.addon.getChatHoverListener().clearPendingLines();
+    this.addon.getHoverUpdateQueue().clear();
+  }
+}
\ No newline at end of file
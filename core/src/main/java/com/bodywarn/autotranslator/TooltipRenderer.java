@@ -1,14 +1,15 @@
 package com.bodywarn.autotranslator;
 
-import net.labymod.api.client.gui.screen.Parent;
-import net.labymod.api.client.render.matrix.Stack;
+import com.bodywarn.autotranslator.chat.ChatLineLocator;
+import com.bodywarn.autotranslator.settings.TranslationMode;
+import net.labymod.api.event.Phase;
 import net.labymod.api.event.Subscribe;
 import net.labymod.api.event.client.render.ScreenRenderEvent;
-import com.bodywarn.autotranslator.settings.TranslatorAddon;
 
 public class TooltipRenderer {
 
   private final AutoTranslatorAddon addon;
+  private final ChatLineLocator chatLineLocator = new ChatLineLocator();
 
   public TooltipRenderer(AutoTranslatorAddon addon) {
     this.addon = addon;
@@ -20,5 +21,15 @@ public class TooltipRenderer {
       return;
     }
 
+    if (event.phase() != Phase.POST
+        || this.addon.configuration().translationMode().get() != TranslationMode.ON_HOVER) {
+      return;
+    }
+
+    try {
+      this.addon.getChatHoverListener().onLineHovered(this.chatLineLocator.componentUnderCursor());
+    } catch (Exception e) {
+      this.addon.logger().error("Error locating hovered chat line", e);
+    }
   }
 }
\ No newline at end of file
@@ -1,310 +1,512 @@
 package com.bodywarn.autotranslator;
 
+import com.bodywarn.autotranslator.backend.BackendEndpoints;
+import com.bodywarn.autotranslator.backend.BackendHealth;
+import com.bodywarn.autotranslator.backend.BackendPool;
+import com.bodywarn.autotranslator.backend.GoogleBackend;
+import com.bodywarn.autotranslator.backend.HedgedTranslation;
+import com.bodywarn.autotranslator.backend.HttpTransport;
+import com.bodywarn.autotranslator.backend.LatencyTracker;
+import com.bodywarn.autotranslator.backend.LingvaBackend;
+import com.bodywarn.autotranslator.cache.PersistentTranslationStore;
+import com.bodywarn.autotranslator.cache.ServerLineHistory;
+import com.bodywarn.autotranslator.cache.SharedCacheClient;
+import com.bodywarn.autotranslator.cache.TranslationCache;
+import com.bodywarn.autotranslator.chat.MessageSegmenter;
+import com.bodywarn.autotranslator.chat.TokenMasker;
+import com.bodywarn.autotranslator.detect.LanguageDetector;
+import com.bodywarn.autotranslator.detect.SenderProfiles;
+import com.bodywarn.autotranslator.metrics.MetricsReporter;
+import com.bodywarn.autotranslator.metrics.MetricsSnapshot;
+import com.bodywarn.autotranslator.metrics.TranslationMetrics;
+import com.bodywarn.autotranslator.phrase.PhraseDictionary;
+import com.bodywarn.autotranslator.schedule.DroppedTranslationException;
+import com.bodywarn.autotranslator.schedule.MicroBatcher;
+import com.bodywarn.autotranslator.schedule.TranslationScheduler;
+import com.bodywarn.autotranslator.schedule.TranslationSession;
 import com.bodywarn.autotranslator.settings.Language;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
+import com.bodywarn.autotranslator.settings.TranslatorAddon;
+import com.bodywarn.autotranslator.trace.TraceRecorder;
+import com.bodywarn.autotranslator.trace.TraceRecorder.Stage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class TranslationService {
 
-  private static final String[] LINGVA_INSTANCES = {
-      "https://translate.plausibility.cloud/api/v1",
-      "https://lingva.lunar.icu/api/v1",
-      "https://lingva.garudalinux.org/api/v1"
-  };
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+  private static final long MILLIS_PER_MINUTE = 60_000L;
+  private static final long MILLIS_PER_SECOND = 1000L;
+  private static final long SHUTDOWN_WAIT_MILLIS = 2000L;
+
+  private static final int MAX_CONCURRENT_REQUESTS = 4;
+  // Room for each request plus a hedge to have its body parsed at once.
+  private static final int PARSE_THREADS = MAX_CONCURRENT_REQUESTS * 2;
+  private static final int MAX_BATCH_LINES = 8;
+  private static final int MAX_BATCH_CHARS = 1500;
+
+  private static final int MIN_HEDGE_SAMPLES = 20;
+  private static final long DEFAULT_HEDGE_DELAY_MILLIS = 600L;
+  private static final long MIN_HEDGE_DELAY_MILLIS = 150L;
+  private static final long MAX_HEDGE_DELAY_MILLIS = 3000L;
+
+  private static final int MAX_SENDER_PROFILES = 512;
+  private static final int PREWARM_LINES = 40;
+  private static final int MAX_UNMASKABLE_TEMPLATES = 256;
+
+  private final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "AutoTranslator-Scheduler");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final BackendPool backendPool;
+  private final TranslationScheduler requestScheduler;
+  private final MicroBatcher microBatcher;
+  private final LatencyTracker latencyTracker = new LatencyTracker(128);
+  private final TranslationCache translationCache;
+  private final LanguageDetector languageDetector = new LanguageDetector();
+  private final SenderProfiles senderProfiles = new SenderProfiles(MAX_SENDER_PROFILES);
+  private final PersistentTranslationStore persistentStore;
+  private final PhraseDictionary phraseDictionary;
+  private final ServerLineHistory lineHistory;
+  private final SharedCacheClient sharedCache;
+  private final HttpTransport transport;
+  private final TranslatorAddon config;
+  private final TranslationSession session = new TranslationSession();
+  private final ConcurrentHashMap<String, CompletableFuture<String>> inFlightRequests = new ConcurrentHashMap<>();
+  // The scheduler key each in-flight line was queued under: its template's or its batch's when
+  // it was masked or batched, so a hover can promote the task that will actually answer it.
+  private final ConcurrentHashMap<String, String> scheduledKeys = new ConcurrentHashMap<>();
+  // Template keys whose translation came back without its placeholders; their lines go out as-is.
+  private final Set<String> unmaskableTemplates = ConcurrentHashMap.newKeySet();
+  private final LongAdder coalescedRequests = new LongAdder();
+  private final TranslationMetrics metrics = new TranslationMetrics();
+  private final MetricsReporter metricsReporter;
+  private final TraceRecorder trace = new TraceRecorder();
+  private final Path dataDirectory;
+
+  public TranslationService(TranslatorAddon config, Path dataDirectory) {
+    this(config, dataDirectory, BackendEndpoints.defaults());
+  }
 
-  private final ExecutorService executor = Executors.newFixedThreadPool(5);
-  private final ConcurrentHashMap<String, String> translationCache = new ConcurrentHashMap<>();
-  private static final int MAX_CACHE_SIZE = 1000;
+  public TranslationService(TranslatorAddon config, Path dataDirectory, BackendEndpoints endpoints) {
+    this.config = config;
+    this.dataDirectory = dataDirectory;
+    this.translationCache = new TranslationCache(
+        config.cacheSizeMb().get() * BYTES_PER_MB,
+        config.cacheTtlMinutes().get() * MILLIS_PER_MINUTE
+    );
 
-  private static final Map<String, String[]> LANGUAGE_KEYWORDS = new HashMap<>();
+    config.cacheSizeMb().addChangeListener(sizeMb -> this.translationCache.resize(
+        sizeMb * BYTES_PER_MB, config.cacheTtlMinutes().get() * MILLIS_PER_MINUTE));
+    config.cacheTtlMinutes().addChangeListener(ttlMinutes -> this.translationCache.resize(
+        config.cacheSizeMb().get() * BYTES_PER_MB, ttlMinutes * MILLIS_PER_MINUTE));
 
-  static {
-    LANGUAGE_KEYWORDS.put("da", new String[]{
-        "jeg", "mig", "dig", "hvordan", "også", "ikke", "med", "hej", "hvad", "dansk",
-        "være", "havde", "ville", "kunne", "skulle", "måske", "altså", "godt", "går"
-    });
+    this.persistentStore = new PersistentTranslationStore(
+        dataDirectory.resolve("translations.bin"),
+        config.diskCacheSizeMb().get() * BYTES_PER_MB,
+        config.cacheTtlMinutes().get() * MILLIS_PER_MINUTE
+    );
+    config.diskCacheSizeMb().addChangeListener(
+        sizeMb -> this.persistentStore.setMaxFileBytes(sizeMb * BYTES_PER_MB));
+    config.cacheTtlMinutes().addChangeListener(
+        ttlMinutes -> this.persistentStore.setTtlMillis(ttlMinutes * MILLIS_PER_MINUTE));
+
+    if (config.persistentCache().get()) {
+      this.persistentStore.loadAsync(record -> this.translationCache.putIfAbsent(
+          record.getText() + "|" + record.getTargetLang(), record.getTranslation(), record.getWrittenAt()));
+    }
 
-    LANGUAGE_KEYWORDS.put("de", new String[]{
-        "ich", "mich", "dich", "wie", "geht", "haben", "der", "die", "das", "ein",
-        "eine", "nicht", "und", "aber", "mit", "von", "für", "bist", "deutsch", "heute"
-    });
+    // Profiles remember which lines came back unchanged, which only holds for one target.
+    config.targetLanguage().addChangeListener(language -> this.senderProfiles.clear());
 
-    LANGUAGE_KEYWORDS.put("sv", new String[]{
-        "jag", "mig", "hur", "mår", "också", "inte", "med", "hej", "vad", "svenska",
-        "vara", "hade", "skulle", "kanske", "bra", "går"
+    // Lines requested for the old target language or before the addon was disabled are no longer
+    // wanted.
+    config.targetLanguage().addChangeListener(language -> this.invalidateSession());
+    config.enabled().addChangeListener(enabled -> {
+      if (!enabled) {
+        this.invalidateSession();
+      }
     });
 
-    LANGUAGE_KEYWORDS.put("no", new String[]{
-        "jeg", "meg", "deg", "hvordan", "også", "ikke", "med", "hei", "hva", "norsk",
-        "være", "hadde", "ville", "kunne", "skulle", "kanskje", "bra", "går"
-    });
+    this.phraseDictionary = new PhraseDictionary(dataDirectory.resolve("phrases.txt"), executor);
 
-    LANGUAGE_KEYWORDS.put("fr", new String[]{
-        "je", "tu", "il", "elle", "nous", "vous", "ils", "elles", "est", "sont",
-        "le", "la", "les", "un", "une", "de", "du", "et", "mais", "pour", "avec", "français"
-    });
+    // Optional cache tier shared with other players; a blank address leaves it off.
+    this.sharedCache = new SharedCacheClient(scheduler);
+    this.sharedCache.setEndpoint(config.sharedCacheUrl().get());
+    config.sharedCacheUrl().addChangeListener(this.sharedCache::setEndpoint);
 
-    LANGUAGE_KEYWORDS.put("es", new String[]{
-        "yo", "tú", "él", "ella", "nosotros", "vosotros", "ellos", "ellas", "es", "son",
-        "el", "la", "los", "las", "un", "una", "de", "del", "pero", "para", "español"
+    this.lineHistory = new ServerLineHistory(dataDirectory.resolve("servers"));
+    // A new target language leaves the cache cold for everything on screen and everything the
+    // server keeps repeating.
+    config.targetLanguage().addChangeListener(language -> {
+      LinkedHashSet<String> lines = new LinkedHashSet<>(this.lineHistory.frequentLines(PREWARM_LINES));
+      lines.addAll(this.lineHistory.recentLines());
+      this.prewarm(new ArrayList<>(lines));
     });
 
-    LANGUAGE_KEYWORDS.put("it", new String[]{
-        "io", "tu", "lui", "lei", "noi", "voi", "loro", "è", "sono", "ha", "hanno",
-        "il", "la", "gli", "le", "un", "una", "di", "del", "per", "italiano"
-    });
+    this.backendPool = new BackendPool(config.backendRateLimit().get());
+    config.backendRateLimit().addChangeListener(this.backendPool::setRateLimit);
 
-    LANGUAGE_KEYWORDS.put("pt", new String[]{
-        "eu", "você", "ele", "ela", "nós", "vós", "eles", "elas", "é", "são",
-        "o", "a", "os", "as", "um", "uma", "de", "do", "mas", "para", "português"
-    });
+    this.requestScheduler = new TranslationScheduler(backendPool, scheduler,
+        config.queuePolicy().get(), config.queueCapacity().get(), MAX_CONCURRENT_REQUESTS);
+    config.queuePolicy().addChangeListener(this.requestScheduler::setPolicy);
+    config.queueCapacity().addChangeListener(this.requestScheduler::setCapacity);
 
-    LANGUAGE_KEYWORDS.put("en", new String[]{
-        "the", "is", "are", "was", "were", "have", "has", "had", "will", "would",
-        "could", "should", "can", "may", "might", "what", "how", "when", "where", "english"
-    });
-  }
+    this.microBatcher = new MicroBatcher(
+        (batchText, traceLines, sourceLang, targetLang, priority, token) -> scheduleTranslation(
+            batchText + "|" + targetLang, priority, token, batchText, traceLines, sourceLang, targetLang),
+        scheduler, config.batchWindowMs().get(), MAX_BATCH_LINES, MAX_BATCH_CHARS);
+    config.batchWindowMs().addChangeListener(windowMs -> this.microBatcher.setWindowMillis(windowMs));
+
+    this.metricsReporter = new MetricsReporter(this::getMetricsSnapshot, dataDirectory.resolve("metrics.log"));
+    this.metricsReporter.setIntervalMinutes(config.metricsLogMinutes().get());
+    config.metricsLogMinutes().addChangeListener(this.metricsReporter::setIntervalMinutes);
 
-  public TranslationService() {
-    System.out.println("[AutoTranslator] Initialized with " + LINGVA_INSTANCES.length + " Lingva instances");
+    this.trace.setEnabled(config.debugTrace().get());
+    this.trace.setSamplePercent(config.traceSamplePercent().get());
+    config.debugTrace().addChangeListener(this.trace::setEnabled);
+    config.traceSamplePercent().addChangeListener(this.trace::setSamplePercent);
+
+    this.transport = new HttpTransport(executor, PARSE_THREADS);
+    for (String instance : endpoints.getLingvaInstances()) {
+      this.backendPool.addPrimary(new LingvaBackend(this.transport, instance));
+    }
+    this.backendPool.setFallback(new GoogleBackend(this.transport, endpoints.getGoogleApiUrl()));
+
+    System.out.println("[AutoTranslator] Initialized with " + endpoints.getLingvaInstances().size() + " Lingva instances");
   }
 
   private String detectLanguage(String text) {
     if (text == null || text.trim().isEmpty()) {
-      return "auto";
+      return LanguageDetector.UNKNOWN;
     }
 
-    String lowerText = text.toLowerCase();
-    Map<String, Integer> scores = new HashMap<>();
+    return languageDetector.detect(text);
+  }
+
 
-    for (String lang : LANGUAGE_KEYWORDS.keySet()) {
-      scores.put(lang, 0);
-    }
+  public CompletableFuture<String> translateAsync(String text, Language targetLang) {
+    return translateAsync(text, targetLang, false);
+  }
 
-    for (Map.Entry<String, String[]> entry : LANGUAGE_KEYWORDS.entrySet()) {
-      String lang = entry.getKey();
-      String[] keywords = entry.getValue();
+  public CompletableFuture<String> translateAsync(String text, Language targetLang, boolean priority) {
+    return translateAsync(text, targetLang, priority, null);
+  }
 
-      for (String keyword : keywords) {
-        String pattern = "\\b" + keyword + "\\b";
-        if (lowerText.matches(".*" + pattern + ".*")) {
-          scores.put(lang, scores.get(lang) + 1);
-        }
-      }
+  // Priority requests (the line the player is looking at) skip ahead of queued chat. The sender,
+  // when known, lets the per-sender language profile stand in for detection.
+  public CompletableFuture<String> translateAsync(String text, Language targetLang, boolean priority,
+      String sender) {
+    if (text == null || text.trim().isEmpty()) {
+      return CompletableFuture.completedFuture(text);
     }
 
-    String detectedLang = "auto";
-    int maxScore = 0;
-
-    for (Map.Entry<String, Integer> entry : scores.entrySet()) {
-      if (entry.getValue() > maxScore) {
-        maxScore = entry.getValue();
-        detectedLang = entry.getKey();
+    String langCode = getLanguageCode(targetLang);
+    if (config.phraseDictionary().get()) {
+      String phrase = phraseDictionary.lookup(text, langCode);
+      if (phrase != null) {
+        metrics.recordPhraseHit();
+        trace.record(Stage.PHRASE_HIT, text, phrase);
+        return CompletableFuture.completedFuture(phrase);
       }
     }
 
-    if (maxScore == 0) {
-      return "auto";
+    String cacheKey = text + "|" + langCode;
+    TranslationSession.Token token = session.token(config.requestTimeoutSeconds().get() * MILLIS_PER_SECOND);
+
+    CompletableFuture<String> future = new CompletableFuture<>();
+    CompletableFuture<String> inFlight = inFlightRequests.putIfAbsent(cacheKey, future);
+    if (inFlight != null) {
+      coalescedRequests.increment();
+      trace.record(Stage.COALESCED, text);
+      if (priority) {
+        requestScheduler.promote(scheduledKeys.getOrDefault(cacheKey, cacheKey));
+      }
+      return inFlight.copy();
     }
 
-    System.out.println("[AutoTranslator] Language detection: " + detectedLang + " (score: " + maxScore + ")");
-    return detectedLang;
+    CompletableFuture.supplyAsync(() -> translateUncoalesced(text, langCode, cacheKey, priority, sender, token), executor)
+        .thenCompose(Function.identity())
+        .whenComplete((result, throwable) -> {
+          scheduledKeys.remove(cacheKey);
+          inFlightRequests.remove(cacheKey, future);
+          if (throwable != null) {
+            future.completeExceptionally(throwable);
+          } else {
+            future.complete(result);
+          }
+        });
+
+    return future.copy();
   }
 
+  private CompletableFuture<String> translateUncoalesced(String text, String langCode, String cacheKey,
+      boolean priority, String sender, TranslationSession.Token token) {
+    String cached = translationCache.get(cacheKey);
+    if (cached != null) {
+      trace.record(Stage.CACHE_HIT, text, cached);
+      return CompletableFuture.completedFuture(cached);
+    }
 
-  public CompletableFuture<String> translateAsync(String text, Language targetLang) {
-    return CompletableFuture.supplyAsync(() -> {
-      try {
-        if (text == null || text.trim().isEmpty()) {
-          return text;
-        }
+    // Templated lines ("Player123 has won 500 coins") are cached and translated as
+    // "{0} has won {1} coins"; the values are put back into the translated template.
+    TokenMasker.Masked masked = mask(text, langCode);
+    String requestText = masked != null ? masked.getTemplate() : text;
+    String requestKey = masked != null ? requestText + "|" + langCode : cacheKey;
+
+    if (masked != null) {
+      String cachedTemplate = translationCache.get(requestKey);
+      String unmasked = cachedTemplate != null ? masked.unmask(cachedTemplate) : null;
+      if (unmasked != null) {
+        metrics.recordTemplateHit();
+        trace.record(Stage.CACHE_HIT, text, cachedTemplate);
+        return CompletableFuture.completedFuture(unmasked);
+      }
+    }
 
-        String langCode = getLanguageCode(targetLang);
-        String cacheKey = text + "|" + langCode;
+    // Everything below may reach the network; a line nobody will read stops here.
+    String staleReason = token.staleReason();
+    if (staleReason != null) {
+      trace.record(Stage.DROPPED, text, staleReason);
+      return CompletableFuture.failedFuture(new DroppedTranslationException(
+          "Translation cancelled (" + staleReason + "): " + cacheKey));
+    }
 
-        if (translationCache.containsKey(cacheKey)) {
-          System.out.println("[AutoTranslator] Cache hit for: " + text);
-          return translationCache.get(cacheKey);
-        }
+    boolean profiled = sender != null && config.senderProfiles().get();
+    String predictedLang = profiled ? senderProfiles.predict(sender, langCode) : null;
+
+    String detectedLang;
+    if (predictedLang != null) {
+      detectedLang = predictedLang;
+      metrics.recordProfileHit();
+      trace.record(Stage.DETECTED, text, detectedLang + " (sender profile)");
+    } else {
+      detectedLang = detectLanguage(text);
+      trace.record(Stage.DETECTED, text, detectedLang);
+      if (profiled) {
+        senderProfiles.recordLanguage(sender, detectedLang);
+      }
+    }
+    metrics.recordDetection(detectedLang, detectedLang.equals(langCode));
 
-        String detectedLang = detectLanguage(text);
-        System.out.println("[AutoTranslator] Detected: " + detectedLang + ", Target: " + langCode);
+    if (detectedLang.equals(langCode)) {
+      if (profiled && predictedLang == null) {
+        senderProfiles.recordResult(sender, true);
+      }
+      trace.record(Stage.RESULT, text, "already in target language");
+      return CompletableFuture.completedFuture(text);
+    }
 
-        if (detectedLang.equals(langCode)) {
-          System.out.println("[AutoTranslator] Already in target language");
+    long startedAt = System.nanoTime();
+    Predicate<String> cacheable = masked != null ? result -> masked.unmask(result) != null : result -> true;
+    return requestTranslation(requestText, text, requestKey, detectedLang, langCode, priority, token, cacheable)
+        .thenCompose(result -> {
+          metrics.recordTranslationLatency(System.nanoTime() - startedAt);
+          if (masked == null) {
+            trace.record(Stage.RESULT, text, result);
+            return CompletableFuture.completedFuture(result);
+          }
+
+          String unmasked = masked.unmask(result);
+          if (unmasked != null) {
+            trace.record(Stage.RESULT, text, unmasked);
+            return CompletableFuture.completedFuture(unmasked);
+          }
+
+          // The translator dropped or mangled a placeholder: translate the line as it is, and
+          // every later line with this template too.
+          trace.record(Stage.FAILED, text, "placeholders lost: " + result);
+          if (unmaskableTemplates.size() >= MAX_UNMASKABLE_TEMPLATES) {
+            unmaskableTemplates.clear();
+          }
+          unmaskableTemplates.add(requestKey);
+          return requestTranslation(text, text, cacheKey, detectedLang, langCode, priority, token,
+              translated -> true);
+        })
+        .thenApply(result -> {
+          // Only detected lines feed the profile; predicted ones would just confirm themselves.
+          if (profiled && predictedLang == null) {
+            senderProfiles.recordResult(sender, result.trim().equalsIgnoreCase(text.trim()));
+          }
+          return result;
+        })
+        .exceptionally(throwable -> {
+          Throwable cause = rootCause(throwable);
+          if (cause instanceof DroppedTranslationException) {
+            trace.record(Stage.DROPPED, text);
+            throw (DroppedTranslationException) cause;
+          }
+
+          trace.record(Stage.FAILED, text, cause.getMessage());
           return text;
-        }
-
-        System.out.println("[AutoTranslator] Translating: " + text);
-        String result = translate(text, detectedLang, langCode);
-        System.out.println("[AutoTranslator] Result: " + result);
+        });
+  }
 
-        if (result != null && translationCache.size() < MAX_CACHE_SIZE) {
-          translationCache.put(cacheKey, result);
+  // Sends one line (or template) on its way and caches the translation under its key. With a
+  // shared cache configured, other players' results are checked before any backend is asked.
+  // Results the caller cannot use (a template that lost its placeholders) are returned but never
+  // cached, shared or stored. Trace stages go to the chat line the text was taken from.
+  private CompletableFuture<String> requestTranslation(String text, String traceText, String cacheKey,
+      String detectedLang, String langCode, boolean priority, TranslationSession.Token token,
+      Predicate<String> cacheable) {
+    CompletableFuture<String> request;
+    if (sharedCache.isAvailable()) {
+      request = sharedCache.get(text, detectedLang, langCode).thenCompose(shared -> {
+        if (shared != null) {
+          metrics.recordSharedHit();
+          trace.record(Stage.SHARED_HIT, traceText, shared);
+          return CompletableFuture.completedFuture(shared);
         }
 
+        metrics.recordSharedMiss();
+        return dispatchTranslation(text, traceText, cacheKey, detectedLang, langCode, priority, token).thenApply(result -> {
+          if (cacheable.test(result)) {
+            sharedCache.put(text, detectedLang, langCode, result);
+          }
+          return result;
+        });
+      });
+    } else {
+      request = dispatchTranslation(text, traceText, cacheKey, detectedLang, langCode, priority, token);
+    }
+
+    return request.thenApply(result -> {
+      if (!cacheable.test(result)) {
         return result;
+      }
 
-      } catch (Exception e) {
-        System.err.println("[AutoTranslator] Translation failed: " + e.getMessage());
-        e.printStackTrace();
-        return text;
+      translationCache.put(cacheKey, result);
+      if (config.persistentCache().get()) {
+        persistentStore.append(text, detectedLang, langCode, result);
       }
-    }, executor);
+      return result;
+    });
   }
 
-
-  private String translate(String text, String sourceLang, String targetLang) throws Exception {
-    if (text == null || text.trim().isEmpty()) {
-      return text;
+  private CompletableFuture<String> dispatchTranslation(String text, String traceText, String cacheKey,
+      String detectedLang, String langCode, boolean priority, TranslationSession.Token token) {
+    // Lines with an unknown source language are neither batched nor segmented: the backend
+    // would detect one language for the whole batch.
+    boolean knownSource = !LanguageDetector.UNKNOWN.equals(detectedLang);
+    List<MessageSegmenter.Segment> segments = knownSource && config.segmentCache().get()
+        ? MessageSegmenter.split(text) : null;
+    boolean batchable = !priority && config.batchRequests().get() && knownSource;
+
+    if (segments != null && segments.size() > 1) {
+      trace.record(Stage.QUEUED, traceText, "segments");
+      return translateSegments(segments, traceText, detectedLang, langCode, priority, token);
     }
 
-    Exception lastException = null;
-
-    for (int i = 0; i < LINGVA_INSTANCES.length; i++) {
-      try {
-        System.out.println("[AutoTranslator] Trying Lingva instance " + (i + 1));
-        String result = translateWithLingva(text, sourceLang, targetLang, LINGVA_INSTANCES[i]);
+    trace.record(Stage.QUEUED, traceText, batchable ? "batch" : priority ? "priority" : "single");
+    return batchable
+        ? microBatcher.submit(text, traceText, detectedLang, langCode, token)
+        : scheduleTranslation(cacheKey, priority, token, text, List.of(traceText), detectedLang, langCode);
+  }
 
-        if (result != null && !result.trim().isEmpty() && !result.equals(text)) {
-          System.out.println("[AutoTranslator] Success with instance " + (i + 1));
-          return result;
-        }
-      } catch (Exception e) {
-        System.err.println("[AutoTranslator] Instance " + (i + 1) + " failed: " + e.getMessage());
-        lastException = e;
+  // Cached segments are reused; the rest go to the backend together and are cached one by one.
+  private CompletableFuture<String> translateSegments(List<MessageSegmenter.Segment> segments, String traceText,
+      String sourceLang, String langCode, boolean priority, TranslationSession.Token token) {
+    String[] translations = new String[segments.size()];
+    List<Integer> missing = new ArrayList<>();
+    List<String> missingTexts = new ArrayList<>();
+
+    for (int i = 0; i < segments.size(); i++) {
+      String segment = segments.get(i).getText();
+      String cached = translationCache.get(segment + "|" + langCode);
+      if (cached != null) {
+        translations[i] = cached;
+      } else {
+        missing.add(i);
+        missingTexts.add(segment);
       }
     }
 
-    try {
-      System.out.println("[AutoTranslator] Trying Google Translate fallback");
-      String result = translateWithGoogle(text, sourceLang, targetLang);
-      if (result != null && !result.trim().isEmpty()) {
-        return result;
-      }
-    } catch (Exception e) {
-      System.err.println("[AutoTranslator] Google Translate failed: " + e.getMessage());
+    metrics.recordSegments(segments.size() - missing.size(), missing.size());
+    if (missing.isEmpty()) {
+      return CompletableFuture.completedFuture(MessageSegmenter.join(segments, translations));
     }
 
-    throw new Exception("All translation services failed. Last error: " +
-        (lastException != null ? lastException.getMessage() : "Unknown error"));
+    List<CompletableFuture<String>> requests =
+        microBatcher.submitNow(missingTexts, traceText, sourceLang, langCode, priority, token);
+    return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+      for (int i = 0; i < requests.size(); i++) {
+        String segment = missingTexts.get(i);
+        String translated = requests.get(i).join();
+        translations[missing.get(i)] = translated;
+
+        translationCache.put(segment + "|" + langCode, translated);
+        if (config.persistentCache().get()) {
+          persistentStore.append(segment, sourceLang, langCode, translated);
+        }
+      }
+      return MessageSegmenter.join(segments, translations);
+    });
   }
 
-  private String translateWithLingva(String text, String sourceLanguage, String targetLanguage, String apiUrl) throws Exception {
-    String encodedText = URLEncoder.encode(text, StandardCharsets.UTF_8.toString());
-    String urlString = apiUrl + "/" + sourceLanguage + "/" + targetLanguage + "/" + encodedText;
-
-    System.out.println("[AutoTranslator] Lingva request: " + urlString);
-
-    URL url = new URL(urlString);
-    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-    conn.setRequestMethod("GET");
-    conn.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-    conn.setConnectTimeout(3000); // Reduced timeout for speed
-    conn.setReadTimeout(3000);
-
-    int responseCode = conn.getResponseCode();
-    System.out.println("[AutoTranslator] Lingva response code: " + responseCode);
-
-    if (responseCode != 200) {
-      conn.disconnect();
-      throw new Exception("HTTP Error " + responseCode);
-    }
-
-    BufferedReader in = new BufferedReader(
-        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
-    StringBuilder response = new StringBuilder();
-    String inputLine;
-
-    while ((inputLine = in.readLine()) != null) {
-      response.append(inputLine);
+  private CompletableFuture<String> scheduleTranslation(String key, boolean priority,
+      TranslationSession.Token token, String text, List<String> traceLines, String sourceLang, String targetLang) {
+    // Trace lines are the chat lines the request answers: their in-flight keys minus the language.
+    for (String traceLine : traceLines) {
+      scheduledKeys.put(traceLine + "|" + targetLang, key);
     }
-    in.close();
-    conn.disconnect();
-
-    String jsonResponse = response.toString();
-    System.out.println("[AutoTranslator] Lingva response: " + jsonResponse);
+    return requestScheduler.submit(key, priority, token, () -> translate(text, traceLines, sourceLang, targetLang));
+  }
 
-    JsonObject jsonObject = JsonParser.parseString(jsonResponse).getAsJsonObject();
+  private CompletableFuture<String> translate(String text, List<String> traceLines, String sourceLang,
+      String targetLang) {
+    return HedgedTranslation.start(backendPool.ordered(), text, sourceLang, targetLang, hedgeDelayMillis(),
+        scheduler, latencyTracker, trace, traceLines);
+  }
 
-    if (jsonObject.has("translation")) {
-      String translation = jsonObject.get("translation").getAsString().trim();
-      String decoded = URLDecoder.decode(translation.replace("+", " "), StandardCharsets.UTF_8.toString());
-      return decoded;
+  // Null when masking is off, the line has nothing to mask, or its template is known to lose
+  // placeholders in translation.
+  private TokenMasker.Masked mask(String text, String langCode) {
+    TokenMasker.Masked masked = config.maskTokens().get() ? TokenMasker.mask(text) : null;
+    if (masked != null && unmaskableTemplates.contains(masked.getTemplate() + "|" + langCode)) {
+      return null;
     }
-
-    throw new Exception("No translation in response");
+    return masked;
   }
 
-  private String translateWithGoogle(String text, String sourceLanguage, String targetLanguage) throws Exception {
-    String encodedText = URLEncoder.encode(text, StandardCharsets.UTF_8.toString());
-
-    String urlString = String.format(
-        "https://translate.googleapis.com/translate_a/single?client=gtx&sl=%s&tl=%s&dt=t&q=%s",
-        sourceLanguage.equals("auto") ? "auto" : sourceLanguage,
-        targetLanguage,
-        encodedText
-    );
-
-    System.out.println("[AutoTranslator] Google Translate request");
-
-    URL url = new URL(urlString);
-    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-    conn.setRequestMethod("GET");
-    conn.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-    conn.setConnectTimeout(3000);
-    conn.setReadTimeout(3000);
+  // 0 in the settings means "use the observed p90"; a disabled switch only fails over on errors.
+  private long hedgeDelayMillis() {
+    if (!config.hedgeRequests().get()) {
+      return -1L;
+    }
 
-    int responseCode = conn.getResponseCode();
-    System.out.println("[AutoTranslator] Google Translate response code: " + responseCode);
+    int configured = config.hedgeDelayMs().get();
+    if (configured > 0) {
+      return configured;
+    }
 
-    if (responseCode != 200) {
-      conn.disconnect();
-      throw new Exception("HTTP Error " + responseCode);
+    if (latencyTracker.sampleCount() < MIN_HEDGE_SAMPLES) {
+      return DEFAULT_HEDGE_DELAY_MILLIS;
     }
 
-    BufferedReader in = new BufferedReader(
-        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
-    StringBuilder response = new StringBuilder();
-    String inputLine;
+    long p90 = latencyTracker.percentile(0.9D, DEFAULT_HEDGE_DELAY_MILLIS);
+    return Math.max(MIN_HEDGE_DELAY_MILLIS, Math.min(MAX_HEDGE_DELAY_MILLIS, p90));
+  }
 
-    while ((inputLine = in.readLine()) != null) {
-      response.append(inputLine);
+  private static Throwable rootCause(Throwable throwable) {
+    while (throwable instanceof CompletionException && throwable.getCause() != null) {
+      throwable = throwable.getCause();
     }
-    in.close();
-    conn.disconnect();
-
-    String jsonResponse = response.toString();
-
-    JsonArray jsonArray = JsonParser.parseString(jsonResponse).getAsJsonArray();
-    if (jsonArray.size() > 0) {
-      JsonArray translationArray = jsonArray.get(0).getAsJsonArray();
-      if (translationArray.size() > 0) {
-        JsonArray innerArray = translationArray.get(0).getAsJsonArray();
-        if (innerArray.size() > 0) {
-          String translation = innerArray.get(0).getAsString().trim();
-          System.out.println("[AutoTranslator] Google Translate result: " + translation);
-          return translation;
-        }
-      }
-    }
-
-    throw new Exception("No translation in Google response");
+    return throwable;
   }
 
   private String getLanguageCode(Language language) {
@@ -334,8 +536,99 @@ public class TranslationService {
     }
   }
 
+  public void serverJoined(String host) {
+    lineHistory.switchServer(host, PREWARM_LINES, this::prewarm);
+  }
+
+  public void serverLeft() {
+    lineHistory.switchServer(null, 0, lines -> { });
+  }
+
+  // Called for every line that passes the chat filter; feeds the per-server line counts.
+  public void observeLine(String text) {
+    if (config.prewarmCache().get()) {
+      lineHistory.observe(text);
+    }
+  }
+
+  // Translates lines ahead of time on idle backend capacity only. Nothing is returned; the
+  // results simply land in the cache.
+  public void prewarm(List<String> lines) {
+    if (lines.isEmpty() || !config.prewarmCache().get() || !config.enabled().get()) {
+      return;
+    }
+
+    executor.execute(() -> {
+      String langCode = getLanguageCode(config.targetLanguage().get());
+      TranslationSession.Token token = session.token(0L);
+      for (String line : lines) {
+        prewarmLine(line, langCode, token);
+      }
+    });
+  }
+
+  private void prewarmLine(String text, String langCode, TranslationSession.Token token) {
+    if (config.phraseDictionary().get() && phraseDictionary.lookup(text, langCode) != null) {
+      return;
+    }
+
+    String cacheKey = text + "|" + langCode;
+    if (translationCache.contains(cacheKey) || inFlightRequests.containsKey(cacheKey)) {
+      return;
+    }
+
+    TokenMasker.Masked masked = mask(text, langCode);
+    String requestText = masked != null ? masked.getTemplate() : text;
+    String requestKey = masked != null ? requestText + "|" + langCode : cacheKey;
+    if (masked != null && translationCache.contains(requestKey)) {
+      return;
+    }
+
+    String detectedLang = detectLanguage(text);
+    if (detectedLang.equals(langCode)) {
+      return;
+    }
+
+    trace.record(Stage.QUEUED, text, "prewarm");
+    sharedCache.get(requestText, detectedLang, langCode)
+        .thenCompose(shared -> shared != null ? CompletableFuture.completedFuture(shared)
+            : requestScheduler.submitBackground(requestKey, token, () -> translate(requestText, List.of(text), detectedLang, langCode))
+                .thenApply(result -> {
+                  if (masked == null || masked.unmask(result) != null) {
+                    sharedCache.put(requestText, detectedLang, langCode, result);
+                  }
+                  return result;
+                }))
+        .thenAccept(result -> {
+          if (masked != null && masked.unmask(result) == null) {
+            return;
+          }
+
+          translationCache.put(requestKey, result);
+          if (config.persistentCache().get()) {
+            persistentStore.append(requestText, detectedLang, langCode, result);
+          }
+          metrics.recordPrewarmed();
+        });
+  }
+
+  // Called for every chat line, translated or not, so requests can tell when their line has
+  // scrolled out of the chat history.
+  public void lineReceived() {
+    session.lineReceived();
+  }
+
+  // Ends the chat session (server hop, disconnect, language change): queued requests are dropped
+  // and running ones aborted.
+  public void invalidateSession() {
+    session.invalidate();
+    requestScheduler.cancelStale();
+  }
+
   public void clearCache() {
     translationCache.clear();
+    unmaskableTemplates.clear();
+    persistentStore.clear();
     System.out.println("[AutoTranslator] Cache cleared");
   }
 
@@ -343,8 +636,82 @@ public class TranslationService {
     return translationCache.size();
   }
 
+  public TranslationCache.CacheStats getCacheStats() {
+    return translationCache.stats();
+  }
+
+  public List<BackendHealth.BackendStatus> getBackendStatus() {
+    return backendPool.status();
+  }
+
+  public long getCoalescedRequests() {
+    return coalescedRequests.sum();
+  }
+
+  public long getBatchedLines() {
+    return microBatcher.getLinesBatched();
+  }
+
+  public int getQueueDepth() {
+    return requestScheduler.queueDepth();
+  }
+
+  public long getDroppedRequests() {
+    return requestScheduler.droppedCount();
+  }
+
+  public long getCancelledRequests() {
+    return requestScheduler.cancelledCount();
+  }
+
+  public TranslationMetrics getMetrics() {
+    return metrics;
+  }
+
+  // Lets short lines ("gg", "hi") past the chat filter when the phrase table answers them.
+  public boolean isKnownPhrase(String text, Language targetLang) {
+    return config.phraseDictionary().get() && phraseDictionary.lookup(text, getLanguageCode(targetLang)) != null;
+  }
+
+  public PhraseDictionary getPhraseDictionary() {
+    return phraseDictionary;
+  }
+
+  public SenderProfiles getSenderProfiles() {
+    return senderProfiles;
+  }
+
+  public TraceRecorder getTrace() {
+    return trace;
+  }
+
+  public CompletableFuture<Path> dumpTrace() {
+    return trace.dumpAsync(dataDirectory);
+  }
+
+  public MetricsSnapshot getMetricsSnapshot() {
+    return new MetricsSnapshot(metrics, translationCache.stats(), backendPool.status(),
+        requestScheduler.queueDepth(), requestScheduler.inFlight(), executor.getQueue().size(),
+        requestScheduler.droppedCount(), requestScheduler.cancelledCount(), coalescedRequests.sum(),
+        microBatcher.getLinesBatched());
+  }
+
   public void shutdown() {
+    lineHistory.close();
+    sharedCache.flushPuts();
+    session.invalidate();
+    requestScheduler.clear();
+    metricsReporter.close();
+    transport.close();
     executor.shutdown();
-    clearCache();
+    scheduler.shutdown();
+    try {
+      executor.awaitTermination(SHUTDOWN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+      scheduler.awaitTermination(SHUTDOWN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    translationCache.clear();
+    persistentStore.close();
   }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class BackendEndpoints {
+
+  private static final List<String> DEFAULT_LINGVA_INSTANCES = Arrays.asList(
+      "https://translate.plausibility.cloud/api/v1",
+      "https://lingva.lunar.icu/api/v1",
+      "https://lingva.garudalinux.org/api/v1"
+  );
+
+  private static final String DEFAULT_GOOGLE_API_URL = "https://translate.googleapis.com/translate_a/single";
+
+  private final List<String> lingvaInstances;
+  private final String googleApiUrl;
+
+  public BackendEndpoints(List<String> lingvaInstances, String googleApiUrl) {
+    this.lingvaInstances = Collections.unmodifiableList(lingvaInstances);
+    this.googleApiUrl = googleApiUrl;
+  }
+
+  public static BackendEndpoints defaults() {
+    return new BackendEndpoints(DEFAULT_LINGVA_INSTANCES, DEFAULT_GOOGLE_API_URL);
+  }
+
+  public List<String> getLingvaInstances() {
+    return lingvaInstances;
+  }
+
+  public String getGoogleApiUrl() {
+    return googleApiUrl;
+  }
+}
\ No newline at end of file
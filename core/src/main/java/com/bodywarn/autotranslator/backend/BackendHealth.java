@@ -0,0 +1,194 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.bodywarn.autotranslator.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+// Health of one backend: latency and error-rate EWMAs plus a circuit breaker. The circuit opens
+// after repeated failures or a 429, stays open for an exponentially growing backoff, then lets a
+// single half-open probe through to decide whether to close again.
+public class BackendHealth {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private static final double ALPHA = 0.2D;
+  private static final double INITIAL_LATENCY_MILLIS = 500.0D;
+  private static final int FAILURES_TO_OPEN = 3;
+  private static final long BASE_BACKOFF_MILLIS = 5_000L;
+  private static final long MAX_BACKOFF_MILLIS = 5L * 60_000L;
+
+  private final LatencyHistogram latencies = new LatencyHistogram();
+
+  private State state = State.CLOSED;
+  private double latencyEwmaMillis = INITIAL_LATENCY_MILLIS;
+  private double errorRate;
+  private int consecutiveFailures;
+  private int openings;
+  private long openUntilMillis;
+  private boolean probeInFlight;
+
+  private long successes;
+  private long failures;
+  private long throttled;
+
+  public synchronized boolean tryAcquire() {
+    switch (this.state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (now() < this.openUntilMillis) {
+          return false;
+        }
+        this.state = State.HALF_OPEN;
+        this.probeInFlight = true;
+        return true;
+      case HALF_OPEN:
+      default:
+        if (this.probeInFlight) {
+          return false;
+        }
+        this.probeInFlight = true;
+        return true;
+    }
+  }
+
+  public synchronized boolean isAvailable() {
+    return this.state == State.CLOSED
+        || (this.state == State.OPEN && now() >= this.openUntilMillis)
+        || (this.state == State.HALF_OPEN && !this.probeInFlight);
+  }
+
+  public synchronized void recordSuccess(long latencyMillis) {
+    this.latencies.recordMicros(latencyMillis * 1_000L);
+    this.successes++;
+    this.latencyEwmaMillis += ALPHA * (latencyMillis - this.latencyEwmaMillis);
+    this.errorRate *= 1.0D - ALPHA;
+    this.consecutiveFailures = 0;
+    this.openings = 0;
+    this.probeInFlight = false;
+    this.state = State.CLOSED;
+  }
+
+  public synchronized void recordFailure(boolean rateLimited) {
+    this.failures++;
+    if (rateLimited) {
+      this.throttled++;
+    }
+
+    this.errorRate += ALPHA * (1.0D - this.errorRate);
+    this.consecutiveFailures++;
+    this.probeInFlight = false;
+
+    if (rateLimited || this.state == State.HALF_OPEN || this.consecutiveFailures >= FAILURES_TO_OPEN) {
+      this.open();
+    }
+  }
+
+  // A cancelled attempt (usually a hedge that lost) is neither a success nor a failure, but it
+  // took at least elapsedMillis: a slower observation still pulls the latency up, otherwise a hung
+  // instance would never sink. A cancelled half-open probe releases the probe slot.
+  public synchronized void recordCancelled(long elapsedMillis) {
+    if (elapsedMillis > this.latencyEwmaMillis) {
+      this.latencyEwmaMillis += ALPHA * (elapsedMillis - this.latencyEwmaMillis);
+    }
+
+    if (this.state == State.HALF_OPEN) {
+      this.probeInFlight = false;
+    }
+  }
+
+  public synchronized double score() {
+    return this.latencyEwmaMillis * (1.0D + 4.0D * this.errorRate);
+  }
+
+  public synchronized BackendStatus snapshot(String name) {
+    return new BackendStatus(name, this.state, this.latencyEwmaMillis, this.latencies.summary(), this.errorRate,
+        this.successes, this.failures, this.throttled,
+        this.state == State.OPEN ? Math.max(0L, this.openUntilMillis - now()) : 0L);
+  }
+
+  private void open() {
+    long backoff = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(this.openings, 16));
+    this.openings++;
+    this.openUntilMillis = now() + backoff;
+    this.state = State.OPEN;
+  }
+
+  private static long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  public static final class BackendStatus {
+
+    private final String name;
+    private final State state;
+    private final double latencyEwmaMillis;
+    private final LatencyHistogram.Summary latency;
+    private final double errorRate;
+    private final long successes;
+    private final long failures;
+    private final long throttled;
+    private final long retryInMillis;
+
+    private BackendStatus(String name, State state, double latencyEwmaMillis, LatencyHistogram.Summary latency,
+        double errorRate, long successes, long failures, long throttled, long retryInMillis) {
+      this.name = name;
+      this.state = state;
+      this.latencyEwmaMillis = latencyEwmaMillis;
+      this.latency = latency;
+      this.errorRate = errorRate;
+      this.successes = successes;
+      this.failures = failures;
+      this.throttled = throttled;
+      this.retryInMillis = retryInMillis;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public State getState() {
+      return state;
+    }
+
+    public double getLatencyEwmaMillis() {
+      return latencyEwmaMillis;
+    }
+
+    public LatencyHistogram.Summary getLatency() {
+      return latency;
+    }
+
+    public double getErrorRate() {
+      return errorRate;
+    }
+
+    public long getSuccesses() {
+      return successes;
+    }
+
+    public long getFailures() {
+      return failures;
+    }
+
+    public long getThrottled() {
+      return throttled;
+    }
+
+    public long getRetryInMillis() {
+      return retryInMillis;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s [%s] latency=%.0fms (p50=%.0fms, p99=%.0fms), errors=%.0f%%, ok=%d, failed=%d, 429=%d%s",
+          name, state, latencyEwmaMillis, latency.getP50Millis(), latency.getP99Millis(), errorRate * 100.0D,
+          successes, failures, throttled,
+          state == State.OPEN ? ", retry in " + retryInMillis + "ms" : "");
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Orders the primary backends by health for each request; the fallback always goes last.
+// Backends with an open circuit stay in the list so HedgedTranslation skips them instantly.
+public class BackendPool {
+
+  private final List<MonitoredBackend> primaries = new ArrayList<>();
+  private MonitoredBackend fallback;
+  private double requestsPerSecond;
+
+  public BackendPool(double requestsPerSecond) {
+    this.requestsPerSecond = requestsPerSecond;
+  }
+
+  public void addPrimary(TranslationBackend backend) {
+    this.primaries.add(new MonitoredBackend(backend, this.requestsPerSecond));
+  }
+
+  public void setFallback(TranslationBackend backend) {
+    this.fallback = new MonitoredBackend(backend, this.requestsPerSecond);
+  }
+
+  public void setRateLimit(double requestsPerSecond) {
+    this.requestsPerSecond = requestsPerSecond;
+    for (MonitoredBackend backend : this.all()) {
+      backend.tokenBucket().setRate(requestsPerSecond);
+    }
+  }
+
+  // True when at least one backend could take a request right now.
+  public boolean hasCapacity() {
+    for (MonitoredBackend backend : this.all()) {
+      if (backend.health().isAvailable() && backend.tokenBucket().hasToken()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // True when a request could be sent and another backend would still have room for the next
+  // one; background work waits for this so it never takes the last token from live chat.
+  public boolean hasSpareCapacity() {
+    int ready = 0;
+    for (MonitoredBackend backend : this.all()) {
+      if (backend.health().isAvailable() && backend.tokenBucket().hasToken() && ++ready >= 2) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public long millisUntilCapacity() {
+    long wait = Long.MAX_VALUE;
+    for (MonitoredBackend backend : this.all()) {
+      if (backend.health().isAvailable()) {
+        wait = Math.min(wait, backend.tokenBucket().millisUntilToken());
+      }
+    }
+    return wait == Long.MAX_VALUE ? 1000L : wait;
+  }
+
+  public List<TranslationBackend> ordered() {
+    // Health changes concurrently, so rank from a snapshot to keep the comparator consistent.
+    List<Ranked> ranked = new ArrayList<>(this.primaries.size());
+    for (MonitoredBackend backend : this.primaries) {
+      ranked.add(new Ranked(backend, backend.health().isAvailable(), backend.health().score()));
+    }
+    ranked.sort(Comparator.comparing((Ranked entry) -> !entry.available)
+        .thenComparingDouble(entry -> entry.score));
+
+    List<TranslationBackend> ordered = new ArrayList<>(this.size());
+    for (Ranked entry : ranked) {
+      ordered.add(entry.backend);
+    }
+    if (this.fallback != null) {
+      ordered.add(this.fallback);
+    }
+    return ordered;
+  }
+
+  public List<BackendHealth.BackendStatus> status() {
+    List<BackendHealth.BackendStatus> status = new ArrayList<>();
+    for (MonitoredBackend backend : this.primaries) {
+      status.add(backend.snapshot());
+    }
+    if (this.fallback != null) {
+      status.add(this.fallback.snapshot());
+    }
+    return status;
+  }
+
+  private List<MonitoredBackend> all() {
+    List<MonitoredBackend> all = new ArrayList<>(this.primaries);
+    if (this.fallback != null) {
+      all.add(this.fallback);
+    }
+    return all;
+  }
+
+  public int size() {
+    return this.primaries.size() + (this.fallback != null ? 1 : 0);
+  }
+
+  private static final class Ranked {
+
+    private final MonitoredBackend backend;
+    private final boolean available;
+    private final double score;
+
+    private Ranked(MonitoredBackend backend, boolean available, double score) {
+      this.backend = backend;
+      this.available = available;
+      this.score = score;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.io.IOException;
+
+// Thrown before any request is sent, when a backend is skipped locally rather than failing.
+public class BackendUnavailableException extends IOException {
+
+  public BackendUnavailableException(String message) {
+    super(message);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.bodywarn.autotranslator.backend;
+
+public class CircuitOpenException extends BackendUnavailableException {
+
+  public CircuitOpenException(String backendName) {
+    super("Circuit open for " + backendName);
+  }
+}
\ No newline at end of file
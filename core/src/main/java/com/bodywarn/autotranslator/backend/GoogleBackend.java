@@ -0,0 +1,72 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+public class GoogleBackend implements TranslationBackend {
+
+  private final HttpTransport transport;
+  private final String apiUrl;
+
+  public GoogleBackend(HttpTransport transport, String apiUrl) {
+    this.transport = transport;
+    this.apiUrl = apiUrl;
+  }
+
+  @Override
+  public String name() {
+    return "google";
+  }
+
+  @Override
+  public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+    String urlString = String.format(
+        "%s?client=gtx&sl=%s&tl=%s&dt=t&q=%s",
+        this.apiUrl,
+        sourceLang,
+        targetLang,
+        URLEncoder.encode(text, StandardCharsets.UTF_8)
+    );
+
+    return this.transport.get(urlString, GoogleBackend::parseResponse);
+  }
+
+  // The response starts with [[["segment", "source", ...], ...], ...]; every segment's first
+  // element is appended and the rest of the document is skipped.
+  static String parseResponse(JsonReader reader) throws IOException {
+    StringBuilder translation = new StringBuilder();
+
+    reader.beginArray();
+    if (reader.hasNext() && reader.peek() == JsonToken.BEGIN_ARRAY) {
+      reader.beginArray();
+      while (reader.hasNext()) {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+          reader.skipValue();
+          continue;
+        }
+
+        reader.beginArray();
+        if (reader.hasNext() && reader.peek() == JsonToken.STRING) {
+          translation.append(reader.nextString());
+        }
+        while (reader.hasNext()) {
+          reader.skipValue();
+        }
+        reader.endArray();
+      }
+      reader.endArray();
+    }
+
+    String result = translation.toString().trim();
+    if (!result.isEmpty()) {
+      return result;
+    }
+
+    throw new IOException("No translation in Google response");
+  }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.bodywarn.autotranslator.trace.TraceRecorder;
+import com.bodywarn.autotranslator.trace.TraceRecorder.Stage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Races the backends in order: the next one is started when the current attempts fail or when
+// none has answered within the hedge delay. The first valid answer wins and the others are
+// cancelled. A negative hedge delay only fails over on errors, like the old sequential loop.
+// Trace stages are recorded against the chat lines the request answers, not the text sent,
+// which may be a batch or a masked template.
+public final class HedgedTranslation {
+
+  private final List<TranslationBackend> backends;
+  private final String text;
+  private final String sourceLang;
+  private final String targetLang;
+  private final long hedgeDelayMillis;
+  private final ScheduledExecutorService scheduler;
+  private final LatencyTracker latencyTracker;
+  private final TraceRecorder trace;
+  private final List<String> traceLines;
+
+  private final CompletableFuture<String> result = new CompletableFuture<>();
+  private final List<CompletableFuture<String>> attempts = new ArrayList<>();
+  private int launched;
+  private int failed;
+  private Throwable lastError;
+
+  private HedgedTranslation(List<TranslationBackend> backends, String text, String sourceLang,
+      String targetLang, long hedgeDelayMillis, ScheduledExecutorService scheduler,
+      LatencyTracker latencyTracker, TraceRecorder trace, List<String> traceLines) {
+    this.backends = backends;
+    this.text = text;
+    this.sourceLang = sourceLang;
+    this.targetLang = targetLang;
+    this.hedgeDelayMillis = hedgeDelayMillis;
+    this.scheduler = scheduler;
+    this.latencyTracker = latencyTracker;
+    this.trace = trace;
+    this.traceLines = traceLines;
+  }
+
+  public static CompletableFuture<String> start(List<TranslationBackend> backends, String text,
+      String sourceLang, String targetLang, long hedgeDelayMillis,
+      ScheduledExecutorService scheduler, LatencyTracker latencyTracker, TraceRecorder trace,
+      List<String> traceLines) {
+    if (backends.isEmpty()) {
+      return CompletableFuture.failedFuture(new IllegalStateException("No translation backends"));
+    }
+
+    HedgedTranslation translation = new HedgedTranslation(backends, text, sourceLang, targetLang,
+        hedgeDelayMillis, scheduler, latencyTracker, trace, traceLines);
+    translation.result.whenComplete((value, throwable) -> translation.cancelAttempts());
+    translation.launchNext();
+    return translation.result;
+  }
+
+  private synchronized void launchNext() {
+    if (this.result.isDone() || this.launched >= this.backends.size()) {
+      return;
+    }
+
+    int index = this.launched++;
+    TranslationBackend backend = this.backends.get(index);
+    boolean fallback = index == this.backends.size() - 1;
+    long startedAt = System.nanoTime();
+
+    this.record(Stage.BACKEND_TRIED, backend.name());
+    CompletableFuture<String> attempt = backend.translate(this.text, this.sourceLang, this.targetLang);
+    this.attempts.add(attempt);
+    attempt.whenComplete((value, throwable) -> this.onAttemptDone(backend, fallback, startedAt,
+        value, throwable));
+
+    if (this.hedgeDelayMillis >= 0L && this.launched < this.backends.size()) {
+      int expectedLaunched = this.launched;
+      this.scheduler.schedule(() -> this.hedge(expectedLaunched), this.hedgeDelayMillis,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private synchronized void hedge(int expectedLaunched) {
+    if (!this.result.isDone() && this.launched == expectedLaunched) {
+      this.record(Stage.BACKEND_HEDGED, this.backends.get(this.launched).name());
+      this.launchNext();
+    }
+  }
+
+  private synchronized void onAttemptDone(TranslationBackend backend, boolean fallback,
+      long startedAt, String value, Throwable throwable) {
+    if (this.result.isDone() || throwable instanceof CancellationException) {
+      return;
+    }
+
+    boolean valid = throwable == null && value != null && !value.trim().isEmpty()
+        && (fallback || !value.equals(this.text));
+    if (valid) {
+      this.latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+      this.record(Stage.BACKEND_OK, backend.name());
+      this.result.complete(value);
+      return;
+    }
+
+    if (throwable != null) {
+      Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+          ? throwable.getCause() : throwable;
+      if (!(cause instanceof BackendUnavailableException)) {
+        this.lastError = cause;
+      }
+      if (this.isTraced()) {
+        this.record(Stage.BACKEND_FAILED, backend.name() + ": " + cause.getMessage());
+      }
+    }
+
+    this.failed++;
+    if (this.failed >= this.backends.size()) {
+      this.result.completeExceptionally(new IOException(
+          "All translation services failed. Last error: "
+              + (this.lastError != null ? this.lastError.getMessage() : "Unknown error"),
+          this.lastError));
+      return;
+    }
+
+    this.launchNext();
+  }
+
+  private boolean isTraced() {
+    for (String line : this.traceLines) {
+      if (this.trace.isSampled(line)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void record(Stage stage, String detail) {
+    for (String line : this.traceLines) {
+      this.trace.record(stage, line, detail);
+    }
+  }
+
+  private synchronized void cancelAttempts() {
+    for (CompletableFuture<String> attempt : this.attempts) {
+      attempt.cancel(true);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.io.IOException;
+
+public class HttpStatusException extends IOException {
+
+  private final int statusCode;
+
+  public HttpStatusException(int statusCode) {
+    super("HTTP Error " + statusCode);
+    this.statusCode = statusCode;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+}
\ No newline at end of file
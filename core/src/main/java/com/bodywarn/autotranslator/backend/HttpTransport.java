@@ -0,0 +1,153 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// One HttpClient shared by every backend, so connections (and HTTP/2 streams where the endpoint
+// negotiates it) are reused instead of paying a TLS handshake per chat line.
+public class HttpTransport {
+
+  private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(3);
+  private static final long BODY_TIMEOUT_MILLIS = 3000L;
+
+  private final HttpClient client;
+  private final ExecutorService parsers;
+
+  // A stalled body holds its parse thread until the body deadline closes it; parses beyond
+  // parseThreads wait in the queue rather than start more threads.
+  public HttpTransport(Executor executor, int parseThreads) {
+    this.parsers = Executors.newFixedThreadPool(parseThreads, runnable -> {
+      Thread thread = new Thread(runnable, "AutoTranslator-Parse");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(CONNECT_TIMEOUT)
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .executor(executor)
+        .build();
+  }
+
+  // Cancelling the returned future aborts the underlying exchange, so losers of a hedged race
+  // stop using a connection slot right away. The status is checked before any body is read, and
+  // error bodies are discarded undecoded. A 200 body is decoded and parsed straight from the
+  // response stream, so no intermediate String or JSON tree is built. Reading that stream blocks,
+  // so it happens on the parse pool rather than on the client's own threads, and under its own
+  // deadline since the request timeout stops counting once the headers are in.
+  public <T> CompletableFuture<T> get(String url, ResponseParser<T> parser) {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+        .timeout(REQUEST_TIMEOUT)
+        .header("User-Agent", USER_AGENT)
+        .header("Accept-Encoding", "gzip, deflate")
+        .GET()
+        .build();
+
+    CompletableFuture<HttpResponse<InputStream>> exchange = this.client.sendAsync(request, info ->
+        info.statusCode() == 200
+            ? HttpResponse.BodySubscribers.ofInputStream()
+            : HttpResponse.BodySubscribers.replacing(InputStream.nullInputStream()));
+
+    CompletableFuture<T> result = new CompletableFuture<>();
+    exchange.whenComplete((response, throwable) -> {
+      if (throwable != null) {
+        result.completeExceptionally(throwable);
+        return;
+      }
+
+      if (response.statusCode() != 200) {
+        result.completeExceptionally(new HttpStatusException(response.statusCode()));
+        return;
+      }
+
+      // Closing the stream unblocks a parse stuck on a stalled body.
+      InputStream body = response.body();
+      result.orTimeout(BODY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+          .whenComplete((value, failure) -> closeQuietly(body));
+      try {
+        this.parsers.execute(() -> parse(response, parser, result));
+      } catch (RejectedExecutionException e) {
+        result.completeExceptionally(e);
+      }
+    });
+    result.whenComplete((value, throwable) -> {
+      if (result.isCancelled()) {
+        exchange.cancel(true);
+      }
+    });
+
+    return result;
+  }
+
+  public void close() {
+    this.parsers.shutdown();
+  }
+
+  private static <T> void parse(HttpResponse<InputStream> response, ResponseParser<T> parser,
+      CompletableFuture<T> result) {
+    if (result.isDone()) {
+      return;
+    }
+
+    try (InputStream body = decode(response)) {
+      JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+      result.complete(parser.parse(reader));
+    } catch (IOException | RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private static void closeQuietly(InputStream stream) {
+    try {
+      stream.close();
+    } catch (IOException ignored) {
+      // Nothing left to release.
+    }
+  }
+
+  private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+    String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+    InputStream body = response.body();
+
+    if (encoding.equalsIgnoreCase("gzip")) {
+      return new GZIPInputStream(body);
+    }
+    if (encoding.equalsIgnoreCase("deflate")) {
+      return inflate(body);
+    }
+    return body;
+  }
+
+  // "deflate" is meant to be zlib-wrapped, but some servers send the raw deflate stream instead;
+  // without the zlib header the raw stream is inflated as it is.
+  private static InputStream inflate(InputStream body) throws IOException {
+    PushbackInputStream stream = new PushbackInputStream(body, 2);
+    byte[] header = stream.readNBytes(2);
+    stream.unread(header);
+
+    boolean zlib = header.length == 2 && (header[0] & 0x0F) == 8
+        && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+    return zlib ? new InflaterInputStream(stream) : new InflaterInputStream(stream, new Inflater(true));
+  }
+}
\ No newline at end of file
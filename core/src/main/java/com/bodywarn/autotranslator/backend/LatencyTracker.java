@@ -0,0 +1,41 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.util.Arrays;
+
+// Keeps the most recent successful request latencies to estimate a percentile for hedging.
+public class LatencyTracker {
+
+  private final long[] samples;
+  private int count;
+  private int next;
+
+  public LatencyTracker(int capacity) {
+    this.samples = new long[capacity];
+  }
+
+  public synchronized void record(long latencyMillis) {
+    this.samples[this.next] = latencyMillis;
+    this.next = (this.next + 1) % this.samples.length;
+    if (this.count < this.samples.length) {
+      this.count++;
+    }
+  }
+
+  public synchronized int sampleCount() {
+    return this.count;
+  }
+
+  public long percentile(double percentile, long defaultMillis) {
+    long[] sorted;
+    synchronized (this) {
+      if (this.count == 0) {
+        return defaultMillis;
+      }
+      sorted = Arrays.copyOf(this.samples, this.count);
+    }
+
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+  }
+}
\ No newline at end of file
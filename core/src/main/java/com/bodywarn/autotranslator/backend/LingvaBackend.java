@@ -0,0 +1,54 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+public class LingvaBackend implements TranslationBackend {
+
+  private final HttpTransport transport;
+  private final String apiUrl;
+
+  public LingvaBackend(HttpTransport transport, String apiUrl) {
+    this.transport = transport;
+    this.apiUrl = apiUrl;
+  }
+
+  @Override
+  public String name() {
+    return this.apiUrl;
+  }
+
+  @Override
+  public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+    // Lingva takes the text as a path segment, where '+' is not a space.
+    String encodedText = URLEncoder.encode(text, StandardCharsets.UTF_8).replace("+", "%20");
+    String urlString = this.apiUrl + "/" + sourceLang + "/" + targetLang + "/" + encodedText;
+
+    return this.transport.get(urlString, LingvaBackend::parseResponse);
+  }
+
+  // Only the "translation" field is read; info blocks and everything else are skipped.
+  static String parseResponse(JsonReader reader) throws IOException {
+    String translation = null;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (translation == null && name.equals("translation")) {
+        translation = reader.nextString().trim();
+      } else {
+        reader.skipValue();
+      }
+    }
+
+    if (translation != null) {
+      return translation;
+    }
+
+    throw new IOException("No translation in response");
+  }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+public class MonitoredBackend implements TranslationBackend {
+
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final TranslationBackend delegate;
+  private final BackendHealth health = new BackendHealth();
+  private final TokenBucket tokenBucket;
+
+  public MonitoredBackend(TranslationBackend delegate, double requestsPerSecond) {
+    this.delegate = delegate;
+    this.tokenBucket = new TokenBucket(requestsPerSecond);
+  }
+
+  @Override
+  public String name() {
+    return this.delegate.name();
+  }
+
+  public BackendHealth health() {
+    return this.health;
+  }
+
+  public TokenBucket tokenBucket() {
+    return this.tokenBucket;
+  }
+
+  @Override
+  public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+    if (!this.health.tryAcquire()) {
+      return CompletableFuture.failedFuture(new CircuitOpenException(this.name()));
+    }
+
+    if (!this.tokenBucket.tryConsume()) {
+      this.health.recordCancelled(0L);
+      return CompletableFuture.failedFuture(new RateLimitedException(this.name()));
+    }
+
+    long startedAt = System.nanoTime();
+    CompletableFuture<String> attempt = this.delegate.translate(text, sourceLang, targetLang);
+    attempt.whenComplete((value, throwable) -> {
+      if (throwable == null) {
+        this.health.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return;
+      }
+
+      Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+          ? throwable.getCause() : throwable;
+      if (cause instanceof CancellationException) {
+        this.health.recordCancelled(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return;
+      }
+
+      boolean rateLimited = cause instanceof HttpStatusException
+          && ((HttpStatusException) cause).getStatusCode() == TOO_MANY_REQUESTS;
+      this.health.recordFailure(rateLimited);
+      if (!this.health.isAvailable()) {
+        System.err.println("[AutoTranslator] " + this.snapshot());
+      }
+    });
+    return attempt;
+  }
+
+  public BackendHealth.BackendStatus snapshot() {
+    return this.health.snapshot(this.name());
+  }
+}
\ No newline at end of file
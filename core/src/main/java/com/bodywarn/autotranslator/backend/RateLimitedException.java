@@ -0,0 +1,8 @@
+package com.bodywarn.autotranslator.backend;
+
+public class RateLimitedException extends BackendUnavailableException {
+
+  public RateLimitedException(String backendName) {
+    super("Local rate limit reached for " + backendName);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+public interface ResponseParser<T> {
+
+  T parse(JsonReader reader) throws IOException;
+}
\ No newline at end of file
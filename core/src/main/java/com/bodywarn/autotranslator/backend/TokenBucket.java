@@ -0,0 +1,52 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucket {
+
+  private double ratePerSecond;
+  private double capacity;
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+
+  public TokenBucket(double ratePerSecond) {
+    this.setRate(ratePerSecond);
+    this.tokens = this.capacity;
+  }
+
+  public synchronized void setRate(double ratePerSecond) {
+    this.refill();
+    this.ratePerSecond = Math.max(0.1D, ratePerSecond);
+    this.capacity = Math.max(1.0D, this.ratePerSecond * 2.0D);
+    this.tokens = Math.min(this.tokens, this.capacity);
+  }
+
+  public synchronized boolean tryConsume() {
+    this.refill();
+    if (this.tokens < 1.0D) {
+      return false;
+    }
+    this.tokens -= 1.0D;
+    return true;
+  }
+
+  public synchronized boolean hasToken() {
+    this.refill();
+    return this.tokens >= 1.0D;
+  }
+
+  public synchronized long millisUntilToken() {
+    this.refill();
+    if (this.tokens >= 1.0D) {
+      return 0L;
+    }
+    return (long) Math.ceil((1.0D - this.tokens) * 1000.0D / this.ratePerSecond);
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    double elapsedSeconds = (now - this.lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1L);
+    this.lastRefillNanos = now;
+    this.tokens = Math.min(this.capacity, this.tokens + elapsedSeconds * this.ratePerSecond);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.bodywarn.autotranslator.backend;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface TranslationBackend {
+
+  String name();
+
+  CompletableFuture<String> translate(String text, String sourceLang, String targetLang);
+}
\ No newline at end of file
@@ -0,0 +1,347 @@
+package com.bodywarn.autotranslator.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Append-only log of [length][text, source, target, translation, written at] records. All file
+// access runs on one background thread, which also rewrites the log without duplicates past its
+// size cap. Records older than the cache TTL are skipped on load and dropped by compaction; a
+// record that does not decode is skipped, and a broken length ends the log at that record.
+public class PersistentTranslationStore {
+
+  private static final int MAGIC = 0x41544332; // "ATC2"
+  private static final int HEADER_BYTES = 4;
+  private static final int MAX_FIELD_CHARS = 4096;
+  private static final int MAX_RECORD_BYTES = 4 * (2 + MAX_FIELD_CHARS * 3) + Long.BYTES;
+
+  private final Path file;
+  private final ThreadPoolExecutor ioExecutor;
+
+  private volatile long maxFileBytes;
+  private volatile long ttlMillis;
+  private OutputStream output;
+  private long fileBytes;
+
+  public PersistentTranslationStore(Path file, long maxFileBytes, long ttlMillis) {
+    this.file = file;
+    this.maxFileBytes = maxFileBytes;
+    this.ttlMillis = ttlMillis;
+    this.ioExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "AutoTranslator-Store");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  public void loadAsync(Consumer<Record> consumer) {
+    this.ioExecutor.execute(() -> {
+      try {
+        int loaded = this.load(consumer);
+        System.out.println("[AutoTranslator] Loaded " + loaded + " cached translations from disk");
+      } catch (IOException e) {
+        System.err.println("[AutoTranslator] Could not load translation store: " + e.getMessage());
+      }
+    });
+  }
+
+  public void append(String text, String sourceLang, String targetLang, String translation) {
+    if (text.length() > MAX_FIELD_CHARS || translation.length() > MAX_FIELD_CHARS) {
+      return;
+    }
+
+    Record record = new Record(text, sourceLang, targetLang, translation, System.currentTimeMillis());
+    this.ioExecutor.execute(() -> {
+      try {
+        this.write(record);
+
+        if (this.ioExecutor.getQueue().isEmpty()) {
+          this.output.flush();
+        }
+
+        if (this.fileBytes > this.maxFileBytes) {
+          this.compact();
+        }
+      } catch (IOException e) {
+        System.err.println("[AutoTranslator] Could not write translation store: " + e.getMessage());
+        this.closeOutput();
+      }
+    });
+  }
+
+  public void setMaxFileBytes(long maxFileBytes) {
+    this.maxFileBytes = maxFileBytes;
+  }
+
+  // 0 keeps records until compaction trims them.
+  public void setTtlMillis(long ttlMillis) {
+    this.ttlMillis = ttlMillis;
+  }
+
+  public void clear() {
+    this.ioExecutor.execute(() -> {
+      this.closeOutput();
+      try {
+        Files.deleteIfExists(this.file);
+        this.fileBytes = 0L;
+      } catch (IOException e) {
+        System.err.println("[AutoTranslator] Could not clear translation store: " + e.getMessage());
+      }
+    });
+  }
+
+  public void close() {
+    this.ioExecutor.execute(this::closeOutput);
+    this.ioExecutor.shutdown();
+    try {
+      this.ioExecutor.awaitTermination(2L, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private int load(Consumer<Record> consumer) throws IOException {
+    if (!Files.exists(this.file)) {
+      return 0;
+    }
+
+    List<Record> records = new ArrayList<>();
+    long validBytes = this.readAll(records);
+
+    long actualBytes = Files.size(this.file);
+    if (validBytes < actualBytes) {
+      // Drop a torn tail record so later appends stay readable.
+      try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+        channel.truncate(validBytes);
+      }
+    }
+
+    this.fileBytes = validBytes;
+    for (Record record : records) {
+      consumer.accept(record);
+    }
+
+    if (this.fileBytes > this.maxFileBytes) {
+      this.compact();
+    }
+
+    return records.size();
+  }
+
+  // Collects the live records and returns how many bytes of the file are well framed.
+  private long readAll(List<Record> records) throws IOException {
+    long ttl = this.ttlMillis;
+    long now = System.currentTimeMillis();
+    int damaged = 0;
+    int expired = 0;
+
+    try (DataInputStream input = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(this.file)))) {
+      if (input.readInt() != MAGIC) {
+        return 0L;
+      }
+
+      long position = HEADER_BYTES;
+      while (true) {
+        int length;
+        try {
+          length = input.readInt();
+        } catch (EOFException e) {
+          return position;
+        }
+
+        if (length <= 0 || length > MAX_RECORD_BYTES) {
+          return position;
+        }
+
+        byte[] payload = new byte[length];
+        try {
+          input.readFully(payload);
+        } catch (EOFException e) {
+          return position;
+        }
+        position += Integer.BYTES + length;
+
+        Record record;
+        try {
+          record = decode(payload);
+        } catch (IOException e) {
+          damaged++;
+          continue;
+        }
+
+        if (ttl > 0L && now - record.getWrittenAt() >= ttl) {
+          expired++;
+        } else {
+          records.add(record);
+        }
+      }
+    } catch (EOFException e) {
+      return 0L;
+    } finally {
+      if (damaged > 0 || expired > 0) {
+        System.out.println("[AutoTranslator] Skipped " + damaged + " damaged and " + expired
+            + " expired records in the translation store");
+      }
+    }
+  }
+
+  private void compact() throws IOException {
+    this.closeOutput();
+
+    List<Record> records = new ArrayList<>();
+    this.readAll(records);
+
+    // Later records win; re-inserting moves them to the end so the newest survive trimming.
+    Map<String, Record> latest = new LinkedHashMap<>();
+    for (Record record : records) {
+      String key = record.getText() + "|" + record.getTargetLang();
+      latest.remove(key);
+      latest.put(key, record);
+    }
+
+    List<byte[]> encoded = new ArrayList<>(latest.size());
+    long totalBytes = HEADER_BYTES;
+    for (Record record : latest.values()) {
+      byte[] payload = encode(record);
+      encoded.add(payload);
+      totalBytes += Integer.BYTES + payload.length;
+    }
+
+    // Trim to half the cap so compaction does not run again right away.
+    long budget = this.maxFileBytes / 2L;
+    Iterator<byte[]> iterator = encoded.iterator();
+    while (totalBytes > budget && iterator.hasNext()) {
+      totalBytes -= Integer.BYTES + iterator.next().length;
+      iterator.remove();
+    }
+
+    Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      output.writeInt(MAGIC);
+      for (byte[] payload : encoded) {
+        output.writeInt(payload.length);
+        output.write(payload);
+      }
+    }
+
+    Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    this.fileBytes = totalBytes;
+
+    System.out.println("[AutoTranslator] Compacted translation store to " + encoded.size()
+        + " entries (" + totalBytes + " bytes)");
+  }
+
+  private void write(Record record) throws IOException {
+    if (this.output == null) {
+      Files.createDirectories(this.file.getParent());
+      boolean fresh = !Files.exists(this.file) || Files.size(this.file) == 0L;
+
+      this.output = new BufferedOutputStream(Files.newOutputStream(this.file,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+      if (fresh) {
+        new DataOutputStream(this.output).writeInt(MAGIC);
+        this.fileBytes = HEADER_BYTES;
+      }
+    }
+
+    byte[] payload = encode(record);
+    DataOutputStream data = new DataOutputStream(this.output);
+    data.writeInt(payload.length);
+    data.write(payload);
+    this.fileBytes += Integer.BYTES + payload.length;
+  }
+
+  private void closeOutput() {
+    if (this.output == null) {
+      return;
+    }
+
+    try {
+      this.output.close();
+    } catch (IOException e) {
+      System.err.println("[AutoTranslator] Could not close translation store: " + e.getMessage());
+    }
+    this.output = null;
+  }
+
+  private static byte[] encode(Record record) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + record.getText().length() * 2);
+    DataOutputStream data = new DataOutputStream(bytes);
+    data.writeUTF(record.getText());
+    data.writeUTF(record.getSourceLang());
+    data.writeUTF(record.getTargetLang());
+    data.writeUTF(record.getTranslation());
+    data.writeLong(record.getWrittenAt());
+    return bytes.toByteArray();
+  }
+
+  private static Record decode(byte[] payload) throws IOException {
+    DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+    Record record = new Record(data.readUTF(), data.readUTF(), data.readUTF(), data.readUTF(), data.readLong());
+    if (data.available() > 0) {
+      throw new IOException("Trailing bytes in record");
+    }
+    return record;
+  }
+
+  public static final class Record {
+
+    private final String text;
+    private final String sourceLang;
+    private final String targetLang;
+    private final String translation;
+    private final long writtenAt;
+
+    public Record(String text, String sourceLang, String targetLang, String translation, long writtenAt) {
+      this.text = text;
+      this.sourceLang = sourceLang;
+      this.targetLang = targetLang;
+      this.translation = translation;
+      this.writtenAt = writtenAt;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public String getSourceLang() {
+      return sourceLang;
+    }
+
+    public String getTargetLang() {
+      return targetLang;
+    }
+
+    public String getTranslation() {
+      return translation;
+    }
+
+    public long getWrittenAt() {
+      return writtenAt;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,212 @@
+package com.bodywarn.autotranslator.cache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Counts how often each chat line is seen per server address and keeps the most recent lines of
+// the current session. Counts are saved to one small "count<TAB>line" file per server when the
+// player leaves, so the next join can translate the recurring lines (MOTD, rules, broadcasts)
+// before they arrive. Only lines seen at least twice are saved; one-off chat never reaches disk.
+public class ServerLineHistory {
+
+  private static final int MAX_TRACKED_LINES = 512;
+  private static final int RECENT_LINES = 100;
+  private static final int MAX_LINE_CHARS = 256;
+
+  private final Path directory;
+  private final ThreadPoolExecutor ioExecutor;
+  private final Map<String, Integer> counts = new HashMap<>();
+  private final Deque<String> recent = new ArrayDeque<>();
+
+  private String server;
+
+  public ServerLineHistory(Path directory) {
+    this.directory = directory;
+    this.ioExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "AutoTranslator-History");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  // Saves the previous server's counts and loads the new one's; the callback gets the loaded
+  // counts' most frequent lines once they are read.
+  public void switchServer(String server, int limit, Consumer<List<String>> onLoaded) {
+    Map<String, Integer> previous;
+    String previousServer;
+    synchronized (this) {
+      previous = new HashMap<>(this.counts);
+      previousServer = this.server;
+      this.server = server == null ? null : server.toLowerCase(Locale.ROOT);
+      this.counts.clear();
+      this.recent.clear();
+    }
+
+    String next = this.server;
+    this.ioExecutor.execute(() -> {
+      if (previousServer != null) {
+        this.write(previousServer, previous);
+      }
+      if (next == null) {
+        return;
+      }
+
+      Map<String, Integer> loaded = this.read(next);
+      List<String> frequent;
+      synchronized (this) {
+        if (!next.equals(this.server)) {
+          return;
+        }
+        loaded.forEach((line, count) -> this.counts.merge(line, count, Integer::sum));
+        frequent = this.frequentLines(limit);
+      }
+      onLoaded.accept(frequent);
+    });
+  }
+
+  public void observe(String line) {
+    if (line.length() > MAX_LINE_CHARS) {
+      return;
+    }
+
+    synchronized (this) {
+      if (this.server == null) {
+        return;
+      }
+
+      if (this.recent.size() >= RECENT_LINES) {
+        this.recent.pollFirst();
+      }
+      this.recent.addLast(line);
+
+      this.counts.merge(line, 1, Integer::sum);
+      if (this.counts.size() > MAX_TRACKED_LINES) {
+        this.decay();
+      }
+    }
+  }
+
+  // Lines seen at least twice, most frequent first.
+  public synchronized List<String> frequentLines(int limit) {
+    List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+    for (Map.Entry<String, Integer> entry : this.counts.entrySet()) {
+      if (entry.getValue() >= 2) {
+        entries.add(entry);
+      }
+    }
+
+    entries.sort(Map.Entry.<String, Integer>comparingByValue(Collections.reverseOrder()));
+    List<String> lines = new ArrayList<>(Math.min(limit, entries.size()));
+    for (int i = 0; i < entries.size() && i < limit; i++) {
+      lines.add(entries.get(i).getKey());
+    }
+    return lines;
+  }
+
+  // The lines still in the chat history, newest last.
+  public synchronized List<String> recentLines() {
+    return new ArrayList<>(this.recent);
+  }
+
+  // Writes the current server's counts after any pending switch, then stops the I/O thread.
+  public void close() {
+    Map<String, Integer> snapshot;
+    String current;
+    synchronized (this) {
+      snapshot = new HashMap<>(this.counts);
+      current = this.server;
+    }
+
+    if (current != null) {
+      this.ioExecutor.execute(() -> this.write(current, snapshot));
+    }
+    this.ioExecutor.shutdown();
+    try {
+      this.ioExecutor.awaitTermination(2L, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Halves every count and forgets lines that fall to zero, so one-off lines make room.
+  private void decay() {
+    this.counts.replaceAll((line, count) -> count / 2);
+    this.counts.values().removeIf(count -> count == 0);
+  }
+
+  private Path fileFor(String server) {
+    return this.directory.resolve(server.replaceAll("[^a-z0-9._-]", "_") + ".txt");
+  }
+
+  private Map<String, Integer> read(String server) {
+    Map<String, Integer> loaded = new HashMap<>();
+    Path file = this.fileFor(server);
+    if (!Files.isRegularFile(file)) {
+      return loaded;
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        int tab = line.indexOf('\t');
+        if (tab <= 0) {
+          continue;
+        }
+        try {
+          loaded.put(line.substring(tab + 1), Integer.parseInt(line.substring(0, tab)));
+        } catch (NumberFormatException ignored) {
+          // Skip lines that were not written by us.
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("[AutoTranslator] Could not read line history for " + server + ": " + e.getMessage());
+    }
+    return loaded;
+  }
+
+  private void write(String server, Map<String, Integer> counts) {
+    List<Map.Entry<String, Integer>> recurring = new ArrayList<>();
+    for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+      if (entry.getValue() >= 2) {
+        recurring.add(entry);
+      }
+    }
+
+    if (recurring.isEmpty()) {
+      return;
+    }
+
+    Path file = this.fileFor(server);
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(this.directory);
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        for (Map.Entry<String, Integer> entry : recurring) {
+          writer.write(entry.getValue() + "\t" + entry.getKey());
+          writer.newLine();
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      System.err.println("[AutoTranslator] Could not save line history for " + server + ": " + e.getMessage());
+    }
+  }
+}
\ No newline at end of file
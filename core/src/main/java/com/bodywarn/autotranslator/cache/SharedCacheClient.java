@@ -0,0 +1,232 @@
+package com.bodywarn.autotranslator.cache;
+
+import com.bodywarn.autotranslator.backend.HttpStatusException;
+import com.bodywarn.autotranslator.cacheprotocol.SharedCacheProtocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Client for the optional cache service shared by every player pointed at the same address.
+// Lookups made within a few milliseconds of each other go out as one request and results are
+// written back in batches. Any failure switches the tier off for a while without an error
+// reaching the caller: lookups simply miss and lines go to the backends as before.
+public class SharedCacheClient {
+
+  private static final long GET_WINDOW_MILLIS = 5L;
+  private static final long PUT_WINDOW_MILLIS = 500L;
+  private static final long BACKOFF_MILLIS = 30_000L;
+  private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(500);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(750);
+
+  private final HttpClient client;
+  private final ScheduledExecutorService scheduler;
+  private final List<Lookup> pendingGets = new ArrayList<>();
+  private final Map<SharedCacheProtocol.Key, String> pendingPuts = new LinkedHashMap<>();
+
+  private volatile URI endpoint;
+  private volatile long downUntil;
+  private boolean getScheduled;
+  private boolean putScheduled;
+
+  public SharedCacheClient(ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler;
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(CONNECT_TIMEOUT)
+        .build();
+  }
+
+  // A blank address switches the shared tier off.
+  public void setEndpoint(String address) {
+    String trimmed = address == null ? "" : address.trim();
+    URI uri = null;
+    if (!trimmed.isEmpty()) {
+      try {
+        uri = URI.create(trimmed.endsWith("/") ? trimmed : trimmed + "/");
+        if (uri.getScheme() == null || uri.getHost() == null) {
+          throw new IllegalArgumentException("missing scheme or host");
+        }
+      } catch (IllegalArgumentException e) {
+        System.err.println("[AutoTranslator] Ignoring shared cache address " + trimmed + ": " + e.getMessage());
+        uri = null;
+      }
+    }
+
+    this.endpoint = uri;
+    this.downUntil = 0L;
+  }
+
+  public boolean isAvailable() {
+    return this.endpoint != null && System.currentTimeMillis() >= this.downUntil;
+  }
+
+  // Completes with null on a miss, and right away while the service is off or unreachable.
+  public CompletableFuture<String> get(String text, String sourceLang, String targetLang) {
+    if (!this.isAvailable()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    Lookup lookup = new Lookup(SharedCacheProtocol.Key.of(text, sourceLang, targetLang));
+    boolean full;
+    boolean schedule;
+    synchronized (this) {
+      this.pendingGets.add(lookup);
+      full = this.pendingGets.size() >= SharedCacheProtocol.MAX_BATCH;
+      schedule = !full && !this.getScheduled;
+      this.getScheduled |= schedule;
+    }
+
+    if (full) {
+      this.flushGets();
+    } else if (schedule) {
+      this.scheduler.schedule(this::flushGets, GET_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    return lookup.result;
+  }
+
+  public void put(String text, String sourceLang, String targetLang, String translation) {
+    if (!this.isAvailable() || translation.length() > SharedCacheProtocol.MAX_TRANSLATION_CHARS) {
+      return;
+    }
+
+    SharedCacheProtocol.Key key = SharedCacheProtocol.Key.of(text, sourceLang, targetLang);
+    boolean full;
+    boolean schedule;
+    synchronized (this) {
+      this.pendingPuts.put(key, translation);
+      full = this.pendingPuts.size() >= SharedCacheProtocol.MAX_BATCH;
+      schedule = !full && !this.putScheduled;
+      this.putScheduled |= schedule;
+    }
+
+    if (full) {
+      this.flushPuts();
+    } else if (schedule) {
+      this.scheduler.schedule(this::flushPuts, PUT_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public void flushPuts() {
+    Map<SharedCacheProtocol.Key, String> batch;
+    synchronized (this) {
+      this.putScheduled = false;
+      if (this.pendingPuts.isEmpty()) {
+        return;
+      }
+      batch = new LinkedHashMap<>(this.pendingPuts);
+      this.pendingPuts.clear();
+    }
+
+    try {
+      this.post("put", SharedCacheProtocol.encodePut(batch)).whenComplete((body, throwable) -> {
+        if (throwable != null) {
+          this.markDown(throwable);
+        }
+      });
+    } catch (IOException e) {
+      this.markDown(e);
+    }
+  }
+
+  private void flushGets() {
+    List<Lookup> batch;
+    synchronized (this) {
+      this.getScheduled = false;
+      if (this.pendingGets.isEmpty()) {
+        return;
+      }
+      batch = new ArrayList<>(this.pendingGets);
+      this.pendingGets.clear();
+    }
+
+    List<SharedCacheProtocol.Key> keys = new ArrayList<>(batch.size());
+    for (Lookup lookup : batch) {
+      keys.add(lookup.key);
+    }
+
+    CompletableFuture<byte[]> response;
+    try {
+      response = this.post("get", SharedCacheProtocol.encodeGet(keys));
+    } catch (IOException e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+
+    response.whenComplete((body, throwable) -> {
+      List<String> translations = null;
+      if (throwable == null) {
+        try {
+          translations = SharedCacheProtocol.decodeGetResponse(new ByteArrayInputStream(body));
+          if (translations.size() != batch.size()) {
+            throw new IOException("Expected " + batch.size() + " results, got " + translations.size());
+          }
+        } catch (IOException e) {
+          translations = null;
+          this.markDown(e);
+        }
+      } else {
+        this.markDown(throwable);
+      }
+
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).result.complete(translations != null ? translations.get(i) : null);
+      }
+    });
+  }
+
+  private CompletableFuture<byte[]> post(String path, byte[] body) {
+    URI base = this.endpoint;
+    if (base == null) {
+      return CompletableFuture.failedFuture(new IOException("Shared cache is off"));
+    }
+
+    HttpRequest request = HttpRequest.newBuilder(base.resolve(path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", SharedCacheProtocol.CONTENT_TYPE)
+        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+        .build();
+
+    return this.client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+      if (response.statusCode() != 200) {
+        throw new CompletionException(new HttpStatusException(response.statusCode()));
+      }
+      return response.body();
+    });
+  }
+
+  // Only the first failure of an outage is logged; the tier stays off until the backoff ends.
+  private void markDown(Throwable throwable) {
+    long now = System.currentTimeMillis();
+    boolean wasUp = now >= this.downUntil;
+    this.downUntil = now + BACKOFF_MILLIS;
+
+    if (wasUp && this.endpoint != null) {
+      Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+          ? throwable.getCause() : throwable;
+      System.err.println("[AutoTranslator] Shared cache at " + this.endpoint + " unavailable, retrying in "
+          + BACKOFF_MILLIS / 1000L + "s: " + cause);
+    }
+  }
+
+  private static final class Lookup {
+
+    private final SharedCacheProtocol.Key key;
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+
+    private Lookup(SharedCacheProtocol.Key key) {
+      this.key = key;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,234 @@
+package com.bodywarn.autotranslator.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class TranslationCache {
+
+  // Rough per-entry cost of the map node, two String headers and the entry wrapper.
+  private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75F, true);
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  private long maxBytes;
+  private long ttlMillis;
+  private long usedBytes;
+
+  public TranslationCache(long maxBytes, long ttlMillis) {
+    this.maxBytes = Math.max(0L, maxBytes);
+    this.ttlMillis = Math.max(0L, ttlMillis);
+  }
+
+  public String get(String key) {
+    long now = System.currentTimeMillis();
+
+    synchronized (this.entries) {
+      Entry entry = this.entries.get(key);
+      if (entry == null) {
+        this.misses.increment();
+        return null;
+      }
+
+      if (entry.isExpired(now, this.ttlMillis)) {
+        this.entries.remove(key);
+        this.usedBytes -= entry.weight;
+        this.expirations.increment();
+        this.misses.increment();
+        return null;
+      }
+
+      this.hits.increment();
+      return entry.value;
+    }
+  }
+
+  // Checks for a key without counting a hit or miss or refreshing its LRU position.
+  public boolean contains(String key) {
+    synchronized (this.entries) {
+      return this.entries.containsKey(key);
+    }
+  }
+
+  public void put(String key, String value) {
+    this.put(key, value, System.currentTimeMillis());
+  }
+
+  // Restores an entry loaded from disk; it keeps the age it was written with, so the TTL counts
+  // from the original translation.
+  public void putIfAbsent(String key, String value, long createdAt) {
+    if (key == null || value == null) {
+      return;
+    }
+
+    synchronized (this.entries) {
+      if (!this.entries.containsKey(key)) {
+        this.put(key, value, createdAt);
+      }
+    }
+  }
+
+  private void put(String key, String value, long createdAt) {
+    if (key == null || value == null) {
+      return;
+    }
+
+    Entry entry = new Entry(value, weigh(key, value), createdAt);
+
+    synchronized (this.entries) {
+      if (entry.weight > this.maxBytes) {
+        return;
+      }
+
+      Entry previous = this.entries.put(key, entry);
+      if (previous != null) {
+        this.usedBytes -= previous.weight;
+      }
+
+      this.usedBytes += entry.weight;
+      this.evictToBudget();
+    }
+  }
+
+  public void resize(long maxBytes, long ttlMillis) {
+    synchronized (this.entries) {
+      this.maxBytes = Math.max(0L, maxBytes);
+      this.ttlMillis = Math.max(0L, ttlMillis);
+      this.evictToBudget();
+    }
+  }
+
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+      this.usedBytes = 0L;
+    }
+  }
+
+  public int size() {
+    synchronized (this.entries) {
+      return this.entries.size();
+    }
+  }
+
+  public CacheStats stats() {
+    synchronized (this.entries) {
+      return new CacheStats(
+          this.hits.sum(),
+          this.misses.sum(),
+          this.evictions.sum(),
+          this.expirations.sum(),
+          this.entries.size(),
+          this.usedBytes,
+          this.maxBytes
+      );
+    }
+  }
+
+  private void evictToBudget() {
+    long now = System.currentTimeMillis();
+    Iterator<Entry> iterator = this.entries.values().iterator();
+
+    // Access order puts the least recently used entries first.
+    while (iterator.hasNext() && this.usedBytes > this.maxBytes) {
+      Entry entry = iterator.next();
+      iterator.remove();
+      this.usedBytes -= entry.weight;
+
+      if (entry.isExpired(now, this.ttlMillis)) {
+        this.expirations.increment();
+      } else {
+        this.evictions.increment();
+      }
+    }
+  }
+
+  static int weigh(String key, String value) {
+    return ENTRY_OVERHEAD_BYTES + 2 * (key.length() + value.length());
+  }
+
+  private static final class Entry {
+
+    private final String value;
+    private final int weight;
+    private final long createdAt;
+
+    private Entry(String value, int weight, long createdAt) {
+      this.value = value;
+      this.weight = weight;
+      this.createdAt = createdAt;
+    }
+
+    private boolean isExpired(long now, long ttlMillis) {
+      return ttlMillis > 0L && now - this.createdAt >= ttlMillis;
+    }
+  }
+
+  public static final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final int entries;
+    private final long usedBytes;
+    private final long maxBytes;
+
+    private CacheStats(long hits, long misses, long evictions, long expirations, int entries,
+        long usedBytes, long maxBytes) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.expirations = expirations;
+      this.entries = entries;
+      this.usedBytes = usedBytes;
+      this.maxBytes = maxBytes;
+    }
+
+    public long getHits() {
+      return hits;
+    }
+
+    public long getMisses() {
+      return misses;
+    }
+
+    public long getEvictions() {
+      return evictions;
+    }
+
+    public long getExpirations() {
+      return expirations;
+    }
+
+    public int getEntries() {
+      return entries;
+    }
+
+    public long getUsedBytes() {
+      return usedBytes;
+    }
+
+    public long getMaxBytes() {
+      return maxBytes;
+    }
+
+    public double getHitRate() {
+      long total = hits + misses;
+      return total == 0L ? 0.0D : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "entries=%d, bytes=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expired=%d",
+          entries, usedBytes, maxBytes, hits, misses, getHitRate() * 100.0D, evictions, expirations
+      );
+    }
+  }
+}
\ No newline at end of file
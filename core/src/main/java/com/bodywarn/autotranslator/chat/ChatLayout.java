@@ -0,0 +1,64 @@
+package com.bodywarn.autotranslator.chat;
+
+// Where the chat is drawn, in scaled GUI units, following the vanilla layout: the chat's bottom
+// edge sits 40 units above the screen bottom, lines are 9 units scaled by (line spacing + 1),
+// and the whole chat is scaled by the chat scale option. Lines are counted from the newest one
+// at the bottom, with the scroll offset already applied.
+public final class ChatLayout {
+
+  private static final float CHAT_LEFT = 4.0F;
+  private static final float CHAT_BOTTOM_OFFSET = 40.0F;
+  private static final float BASE_LINE_HEIGHT = 9.0F;
+
+  private final float guiHeight;
+  private final float scale;
+  private final int width;
+  private final float lineHeight;
+  private final int visibleLines;
+  private final int scrollOffset;
+
+  private ChatLayout(float guiHeight, float scale, int width, float lineHeight, int visibleLines,
+      int scrollOffset) {
+    this.guiHeight = guiHeight;
+    this.scale = scale;
+    this.width = width;
+    this.lineHeight = lineHeight;
+    this.visibleLines = visibleLines;
+    this.scrollOffset = scrollOffset;
+  }
+
+  // Option values as Minecraft stores them: scale, width, spacing and focused height are all
+  // 0..1 sliders; width and height map to 40..320 and 20..180 units.
+  public static ChatLayout of(float guiHeight, double chatScale, double chatWidth, double lineSpacing,
+      double focusedHeight, int scrollOffset) {
+    float scale = (float) Math.max(chatScale, 0.01D);
+    int width = (int) Math.floor(chatWidth * 280.0D + 40.0D);
+    float lineHeight = (int) (BASE_LINE_HEIGHT * (lineSpacing + 1.0D));
+    int height = (int) Math.floor(focusedHeight * 160.0D + 20.0D);
+    int visibleLines = Math.max(1, (int) (height / lineHeight));
+    return new ChatLayout(guiHeight, scale, width, lineHeight, visibleLines, Math.max(0, scrollOffset));
+  }
+
+  // Index of the wrapped line under the point, or -1 when the point is outside the chat.
+  public int lineAt(float guiX, float guiY) {
+    float chatX = guiX / this.scale - CHAT_LEFT;
+    if (chatX < -CHAT_LEFT || chatX > this.wrapWidth()) {
+      return -1;
+    }
+
+    float chatY = (this.guiHeight - guiY - CHAT_BOTTOM_OFFSET) / (this.scale * this.lineHeight);
+    if (chatY < 0.0F || chatY >= this.visibleLines) {
+      return -1;
+    }
+    return (int) chatY + this.scrollOffset;
+  }
+
+  // Chat lines wrap at the chat width in unscaled text units.
+  public int wrapWidth() {
+    return (int) Math.floor(this.width / this.scale);
+  }
+
+  public int getVisibleLines() {
+    return visibleLines;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.bodywarn.autotranslator.chat;
+
+import net.labymod.api.Laby;
+import net.labymod.api.client.Minecraft;
+import net.labymod.api.client.chat.ChatController;
+import net.labymod.api.client.chat.ChatMessage;
+import net.labymod.api.client.component.Component;
+import net.labymod.api.client.gui.screen.NamedScreen;
+import net.labymod.api.client.gui.mouse.MutableMouse;
+import net.labymod.api.client.options.MinecraftOptions;
+import net.labymod.api.client.render.font.text.TextRenderer;
+
+import java.util.List;
+
+// Maps the mouse position to the chat message drawn under it. The layout is rebuilt from the
+// chat options and scroll position on every call, and the mouse is read in the same scaled GUI
+// units as the window height.
+public class ChatLineLocator {
+
+  // The layout only matches what is drawn while the chat screen is open; over any other screen
+  // the cursor position says nothing about chat lines.
+  private boolean isChatOpen() {
+    return NamedScreen.CHAT.isScreen(Laby.labyAPI().minecraft().minecraftWindow().currentScreen());
+  }
+
+  public Component componentUnderCursor() {
+    if (!this.isChatOpen()) {
+      return null;
+    }
+
+    Minecraft minecraft = Laby.labyAPI().minecraft();
+    MinecraftOptions options = minecraft.options();
+    ChatController chat = Laby.labyAPI().chatProvider().chatController();
+
+    ChatLayout layout = ChatLayout.of(minecraft.minecraftWindow().getScaledHeight(), options.getChatScale(),
+        options.getChatWidth(), options.getChatLineSpacing(), options.getChatHeightFocused(),
+        chat.getScrollOffset());
+    MutableMouse mouse = minecraft.mouse();
+    int hoveredLine = layout.lineAt(mouse.getX(), mouse.getY());
+    if (hoveredLine < 0) {
+      return null;
+    }
+
+    List<ChatMessage> messages = chat.getMessages();
+    TextRenderer textRenderer = Laby.labyAPI().renderPipeline().textRenderer();
+    float wrapWidth = layout.wrapWidth();
+
+    // Newest message is drawn at the bottom; walk upwards counting wrapped lines.
+    int line = 0;
+    for (int i = messages.size() - 1; i >= 0 && line <= hoveredLine; i--) {
+      ChatMessage message = messages.get(i);
+      String plainText = message.getPlainText();
+      int wrappedLines = plainText == null ? 1
+          : Math.max(1, (int) Math.ceil(textRenderer.width(plainText) / wrapWidth));
+
+      if (hoveredLine < line + wrappedLines) {
+        return message.component();
+      }
+      line += wrappedLines;
+    }
+
+    return null;
+  }
+}
\ No newline at end of file
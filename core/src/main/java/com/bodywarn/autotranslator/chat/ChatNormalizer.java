@@ -0,0 +1,235 @@
+package com.bodywarn.autotranslator.chat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Cleans a received chat line in one scan. Formatting codes, chat.type.* keys and short bracket
+// tags are dropped as they are read. While still inside the possible sender prefix, the first
+// separator of the active profile that is followed by whitespace discards everything before it;
+// the last name-like word of that prefix is handed back as the sender.
+public class ChatNormalizer {
+
+  private static final String CHAT_TYPE_KEY = "chat.type.";
+  private static final int MAX_TAG_LENGTH = 24;
+  private static final int MIN_SENDER_LENGTH = 3;
+  private static final int MAX_SENDER_LENGTH = 16;
+
+  private static final PrefixProfile DEFAULT_PROFILE =
+      new PrefixProfile(new String[]{">", ":", "»"}, 40, 4);
+
+  private final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private volatile Map<String, PrefixProfile> serverProfiles = Collections.emptyMap();
+
+  public String normalize(String message) {
+    return this.normalize(message, null);
+  }
+
+  public String normalize(String message, String serverHost) {
+    return this.normalize(message, serverHost, null);
+  }
+
+  // Same as normalize(message, serverHost); the sender's name, if one was found, is written to
+  // the given buffer.
+  public String normalize(String message, String serverHost, StringBuilder sender) {
+    if (sender != null) {
+      sender.setLength(0);
+    }
+    if (message == null) {
+      return "";
+    }
+
+    PrefixProfile profile = this.profileFor(serverHost);
+    StringBuilder out = this.buffer.get();
+    out.setLength(0);
+
+    int length = message.length();
+    boolean inPrefix = true;
+    int prefixWords = 0;
+
+    for (int i = 0; i < length; i++) {
+      char c = message.charAt(i);
+
+      if (c == '§') {
+        i++;
+        continue;
+      }
+
+      if (c == '[') {
+        int close = tagEnd(message, i);
+        if (close > 0) {
+          i = close;
+          continue;
+        }
+      }
+
+      if (c == 'c' && message.startsWith(CHAT_TYPE_KEY, i)) {
+        i = wordEnd(message, i + CHAT_TYPE_KEY.length()) - 1;
+        continue;
+      }
+
+      if (inPrefix) {
+        if (i >= profile.maxLength) {
+          inPrefix = false;
+        } else {
+          int separatorEnd = profile.separatorEnd(message, i);
+          if (separatorEnd > 0 && isPrefix(out)) {
+            if (sender != null) {
+              senderName(out, sender);
+            }
+            out.setLength(0);
+            i = separatorEnd - 1;
+            inPrefix = false;
+            continue;
+          }
+
+          if (Character.isWhitespace(c) && out.length() > 0
+              && !Character.isWhitespace(out.charAt(out.length() - 1))
+              && ++prefixWords >= profile.maxWords) {
+            inPrefix = false;
+          }
+        }
+      }
+
+      if (Character.isWhitespace(c)) {
+        if (out.length() == 0 || Character.isWhitespace(out.charAt(out.length() - 1))) {
+          continue;
+        }
+        c = ' ';
+      }
+
+      out.append(c);
+    }
+
+    int end = out.length();
+    while (end > 0 && out.charAt(end - 1) == ' ') {
+      end--;
+    }
+    return out.substring(0, end);
+  }
+
+  // Parses "host=sep|sep, host=sep" into per-server profiles; unknown hosts use the defaults.
+  public void setServerProfiles(String spec) {
+    if (spec == null || spec.trim().isEmpty()) {
+      this.serverProfiles = Collections.emptyMap();
+      return;
+    }
+
+    Map<String, PrefixProfile> profiles = new HashMap<>();
+    for (String entry : spec.split(",")) {
+      int equals = entry.indexOf('=');
+      if (equals <= 0 || equals == entry.length() - 1) {
+        continue;
+      }
+
+      String host = entry.substring(0, equals).trim().toLowerCase(Locale.ROOT);
+      List<String> separators = new ArrayList<>();
+      for (String separator : entry.substring(equals + 1).split("\\|")) {
+        if (!separator.trim().isEmpty()) {
+          separators.add(separator.trim());
+        }
+      }
+
+      if (!separators.isEmpty()) {
+        profiles.put(host, new PrefixProfile(separators.toArray(new String[0]),
+            DEFAULT_PROFILE.maxLength, DEFAULT_PROFILE.maxWords));
+      }
+    }
+
+    this.serverProfiles = profiles;
+  }
+
+  private PrefixProfile profileFor(String serverHost) {
+    if (serverHost == null || this.serverProfiles.isEmpty()) {
+      return DEFAULT_PROFILE;
+    }
+
+    PrefixProfile profile = this.serverProfiles.get(serverHost.toLowerCase(Locale.ROOT));
+    return profile == null ? DEFAULT_PROFILE : profile;
+  }
+
+  private static boolean isPrefix(StringBuilder out) {
+    for (int i = 0; i < out.length(); i++) {
+      if (!Character.isWhitespace(out.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Picks the last run of name characters in the prefix, e.g. "Steve" from "<Steve" or "VIP Steve".
+  private static void senderName(StringBuilder prefix, StringBuilder sender) {
+    int end = prefix.length();
+    while (end > 0 && !isNameChar(prefix.charAt(end - 1))) {
+      end--;
+    }
+
+    int start = end;
+    while (start > 0 && isNameChar(prefix.charAt(start - 1))) {
+      start--;
+    }
+
+    int length = end - start;
+    if (length >= MIN_SENDER_LENGTH && length <= MAX_SENDER_LENGTH) {
+      sender.append(prefix, start, end);
+    }
+  }
+
+  private static boolean isNameChar(char c) {
+    return c < 128 && (Character.isLetterOrDigit(c) || c == '_');
+  }
+
+  private static int tagEnd(String message, int open) {
+    int limit = Math.min(message.length(), open + MAX_TAG_LENGTH + 2);
+    for (int i = open + 1; i < limit; i++) {
+      char c = message.charAt(i);
+      if (c == ']') {
+        return i > open + 1 ? i : -1;
+      }
+      if (Character.isWhitespace(c) || c == '[') {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private static int wordEnd(String message, int start) {
+    int i = start;
+    while (i < message.length() && (Character.isLetterOrDigit(message.charAt(i))
+        || message.charAt(i) == '_' || message.charAt(i) == '.')) {
+      i++;
+    }
+    return i;
+  }
+
+  private static final class PrefixProfile {
+
+    private final String[] separators;
+    private final int maxLength;
+    private final int maxWords;
+
+    private PrefixProfile(String[] separators, int maxLength, int maxWords) {
+      this.separators = separators;
+      this.maxLength = maxLength;
+      this.maxWords = maxWords;
+    }
+
+    private int separatorEnd(String message, int index) {
+      for (String separator : this.separators) {
+        if (!message.startsWith(separator, index)) {
+          continue;
+        }
+
+        int end = index + separator.length();
+        if (end < message.length() && Character.isWhitespace(message.charAt(end))) {
+          return end;
+        }
+      }
+      return -1;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.bodywarn.autotranslator.chat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits a cleaned chat line into sentences and clauses so repeated parts can be cached on
+// their own. Sentence punctuation stays with its segment; clause punctuation (commas and
+// semicolons) and the following whitespace become the separator, so "gg wp, everyone" yields
+// "gg wp", which shares its cache entry with a plain "gg wp".
+public final class MessageSegmenter {
+
+  private static final int MIN_SEGMENT_CHARS = 2;
+
+  private MessageSegmenter() {
+  }
+
+  public static List<Segment> split(String text) {
+    List<Segment> segments = new ArrayList<>(4);
+    int length = text.length();
+    int start = 0;
+    int i = 0;
+
+    while (i < length) {
+      char c = text.charAt(i);
+      boolean sentence = isSentenceEnd(c);
+      if (!sentence && !isClauseEnd(c)) {
+        i++;
+        continue;
+      }
+
+      int punctuationEnd = i + 1;
+      while (punctuationEnd < length && (isSentenceEnd(text.charAt(punctuationEnd))
+          || isClauseEnd(text.charAt(punctuationEnd)))) {
+        punctuationEnd++;
+      }
+
+      int separatorEnd = punctuationEnd;
+      while (separatorEnd < length && Character.isWhitespace(text.charAt(separatorEnd))) {
+        separatorEnd++;
+      }
+
+      // "3.5", "1,000" and abbreviations are not boundaries; full-width punctuation needs no space.
+      boolean boundary = (separatorEnd > punctuationEnd || separatorEnd == length || isFullWidth(c))
+          && !(c == '.' && isAbbreviation(text, start, i));
+      int segmentEnd = sentence ? punctuationEnd : i;
+      if (boundary && countLetters(text, start, segmentEnd) >= MIN_SEGMENT_CHARS) {
+        segments.add(new Segment(text.substring(start, segmentEnd), text.substring(segmentEnd, separatorEnd)));
+        start = separatorEnd;
+      }
+      i = separatorEnd;
+    }
+
+    if (start < length) {
+      if (countLetters(text, start, length) >= MIN_SEGMENT_CHARS || segments.isEmpty()) {
+        segments.add(new Segment(text.substring(start), ""));
+      } else {
+        // A trailing emoticon or stray letter is folded into the last segment.
+        Segment last = segments.remove(segments.size() - 1);
+        segments.add(new Segment(last.text + last.separator + text.substring(start), ""));
+      }
+    }
+    return segments;
+  }
+
+  public static String join(List<Segment> segments, String[] translations) {
+    StringBuilder out = new StringBuilder();
+    for (int i = 0; i < segments.size(); i++) {
+      out.append(translations[i]).append(segments.get(i).separator);
+    }
+    return out.toString().trim();
+  }
+
+  // "e.g.", "i.e.", "U.S.": the word ending at this dot already contains a dot.
+  private static boolean isAbbreviation(String text, int start, int dot) {
+    for (int i = dot - 1; i >= start && !Character.isWhitespace(text.charAt(i)); i--) {
+      if (text.charAt(i) == '.') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isSentenceEnd(char c) {
+    return c == '.' || c == '!' || c == '?' || c == '…' || c == '。' || c == '！' || c == '？';
+  }
+
+  private static boolean isClauseEnd(char c) {
+    return c == ',' || c == ';' || c == '，' || c == '；' || c == '、';
+  }
+
+  private static boolean isFullWidth(char c) {
+    return c >= '　' && c <= '〿' || c >= '＀' && c <= '￯';
+  }
+
+  private static int countLetters(String text, int start, int end) {
+    int letters = 0;
+    for (int i = start; i < end; i++) {
+      if (Character.isLetter(text.charAt(i))) {
+        letters++;
+      }
+    }
+    return letters;
+  }
+
+  public static final class Segment {
+
+    private final String text;
+    private final String separator;
+
+    private Segment(String text, String separator) {
+      this.text = text;
+      this.separator = separator;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public String getSeparator() {
+      return separator;
+    }
+  }
+}
\ No newline at end of file
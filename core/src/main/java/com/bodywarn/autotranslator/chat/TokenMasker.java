@@ -0,0 +1,174 @@
+package com.bodywarn.autotranslator.chat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the parts of a line that vary between otherwise identical server messages (URLs,
+// numbers and coordinates, player-like names with digits or underscores) with {0}, {1}, ... so
+// the template can be cached once and the values are never touched by the translator.
+public final class TokenMasker {
+
+  private static final int MIN_NAME_LENGTH = 3;
+  private static final int MAX_NAME_LENGTH = 16;
+
+  private TokenMasker() {
+  }
+
+  // Returns null when the line has nothing to mask or already contains braces.
+  public static Masked mask(String text) {
+    if (text.indexOf('{') >= 0 || text.indexOf('}') >= 0) {
+      return null;
+    }
+
+    StringBuilder template = null;
+    List<String> values = null;
+    int length = text.length();
+    int copied = 0;
+    int i = 0;
+
+    while (i < length) {
+      if (i > 0 && isWordChar(text.charAt(i - 1))) {
+        i++;
+        continue;
+      }
+
+      int end = tokenEnd(text, i);
+      if (end < 0) {
+        i++;
+        continue;
+      }
+
+      int start = i > 0 && text.charAt(i - 1) == '-' && (i == 1 || !isWordChar(text.charAt(i - 2)))
+          && Character.isDigit(text.charAt(i)) ? i - 1 : i;
+      if (template == null) {
+        template = new StringBuilder(length);
+        values = new ArrayList<>(4);
+      }
+
+      template.append(text, copied, start).append('{').append(values.size()).append('}');
+      values.add(text.substring(start, end));
+      copied = end;
+      i = end;
+    }
+
+    if (template == null) {
+      return null;
+    }
+
+    template.append(text, copied, length);
+    return new Masked(template.toString(), values.toArray(new String[0]));
+  }
+
+  private static int tokenEnd(String text, int start) {
+    if (text.startsWith("http://", start) || text.startsWith("https://", start) || text.startsWith("www.", start)) {
+      int end = start;
+      while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+        end++;
+      }
+      return end;
+    }
+
+    int end = start;
+    boolean letters = false;
+    boolean digits = false;
+    boolean underscore = false;
+    boolean ascii = true;
+    while (end < text.length() && isWordChar(text.charAt(end))) {
+      char c = text.charAt(end);
+      letters |= Character.isLetter(c);
+      digits |= Character.isDigit(c);
+      underscore |= c == '_';
+      ascii &= c < 128;
+      end++;
+    }
+
+    if (digits && !letters && !underscore) {
+      // 1,000 / 3.5 / 12:30 / 100/200 stay one token.
+      while (end + 1 < text.length() && ".,:/".indexOf(text.charAt(end)) >= 0
+          && Character.isDigit(text.charAt(end + 1))) {
+        end++;
+        while (end < text.length() && Character.isDigit(text.charAt(end))) {
+          end++;
+        }
+      }
+      return end;
+    }
+
+    int wordLength = end - start;
+    if (ascii && letters && (digits || underscore)
+        && wordLength >= MIN_NAME_LENGTH && wordLength <= MAX_NAME_LENGTH) {
+      return end;
+    }
+    return -1;
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+
+  public static final class Masked {
+
+    private final String template;
+    private final String[] values;
+
+    private Masked(String template, String[] values) {
+      this.template = template;
+      this.values = values;
+    }
+
+    public String getTemplate() {
+      return template;
+    }
+
+    // Returns null unless every placeholder survived translation exactly once. Translators
+    // sometimes pad braces with spaces ("{ 0 }"), which is accepted.
+    public String unmask(String translated) {
+      StringBuilder out = new StringBuilder(translated.length() + 16);
+      boolean[] seen = new boolean[this.values.length];
+      int length = translated.length();
+      int i = 0;
+
+      while (i < length) {
+        char c = translated.charAt(i);
+        if (c != '{') {
+          out.append(c);
+          i++;
+          continue;
+        }
+
+        int j = skipSpaces(translated, i + 1);
+        int index = 0;
+        int digitsStart = j;
+        while (j < length && Character.isDigit(translated.charAt(j)) && j - digitsStart < 4) {
+          index = index * 10 + (translated.charAt(j) - '0');
+          j++;
+        }
+        int digitsEnd = j;
+        j = skipSpaces(translated, j);
+
+        if (digitsEnd == digitsStart || j >= length || translated.charAt(j) != '}'
+            || index >= this.values.length || seen[index]) {
+          return null;
+        }
+
+        seen[index] = true;
+        out.append(this.values[index]);
+        i = j + 1;
+      }
+
+      for (boolean found : seen) {
+        if (!found) {
+          return null;
+        }
+      }
+      return out.toString();
+    }
+
+    private static int skipSpaces(String text, int index) {
+      while (index < text.length() && text.charAt(index) == ' ') {
+        index++;
+      }
+      return index;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.bodywarn.autotranslator.command;
+
+import com.bodywarn.autotranslator.AutoTranslatorAddon;
+import net.labymod.api.Laby;
+import net.labymod.api.client.chat.command.Command;
+import net.labymod.api.client.component.Component;
+import net.labymod.api.client.component.format.NamedTextColor;
+
+// /autotranslator trace [clear] saves (or drops) the debug trace buffer; /autotranslator phrases
+// reload re-reads the phrase table and the user's phrases.txt.
+public class AutoTranslatorCommand extends Command {
+
+  private final AutoTranslatorAddon addon;
+
+  public AutoTranslatorCommand(AutoTranslatorAddon addon) {
+    super("autotranslator", "at");
+    this.addon = addon;
+  }
+
+  @Override
+  public boolean execute(String prefix, String[] arguments) {
+    if (arguments.length > 1 && arguments[0].equalsIgnoreCase("phrases")
+        && arguments[1].equalsIgnoreCase("reload")) {
+      this.addon.getTranslationService().getPhraseDictionary().reload();
+      this.displayMessage(Component.text("Reloading phrases", NamedTextColor.GRAY));
+      return true;
+    }
+
+    if (arguments.length == 0 || !arguments[0].equalsIgnoreCase("trace")) {
+      this.displayMessage(Component.text("Usage: /" + prefix + " trace [clear] | phrases reload",
+          NamedTextColor.GRAY));
+      return true;
+    }
+
+    if (arguments.length > 1 && arguments[1].equalsIgnoreCase("clear")) {
+      this.addon.getTranslationService().getTrace().clear();
+      this.displayMessage(Component.text("Trace cleared", NamedTextColor.GRAY));
+      return true;
+    }
+
+    if (!this.addon.configuration().debugTrace().get()) {
+      this.displayMessage(Component.text("Debug Trace is off in the addon settings", NamedTextColor.GRAY));
+    }
+
+    this.addon.getTranslationService().dumpTrace().whenComplete((file, throwable) ->
+        Laby.labyAPI().minecraft().executeOnRenderThread(() -> this.displayMessage(throwable == null
+            ? Component.text("Trace saved to " + file, NamedTextColor.GREEN)
+            : Component.text("Could not save trace: " + throwable.getMessage(), NamedTextColor.RED))));
+    return true;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,359 @@
+package com.bodywarn.autotranslator.detect;
+
+import java.lang.Character.UnicodeScript;
+
+// Scores a message in a single pass: each letter run is looked up in a keyword table, each
+// character (plus the one or two before it) in an n-gram table, and non-Latin letters are
+// counted per script. Both tables are open-addressed arrays built once, so detect() does not
+// allocate beyond a per-thread score buffer.
+public class LanguageDetector {
+
+  public static final String UNKNOWN = "auto";
+
+  private static final String[] LANGUAGES = {"en", "da", "sv", "no", "de", "fr", "es", "it", "pt"};
+
+  private static final int KEYWORD_WEIGHT = 3;
+
+  private static final int SCRIPT_HAN = LANGUAGES.length;
+  private static final int SCRIPT_KANA = SCRIPT_HAN + 1;
+  private static final int SCRIPT_HANGUL = SCRIPT_HAN + 2;
+  private static final int SCRIPT_CYRILLIC = SCRIPT_HAN + 3;
+  private static final int SCRIPT_ARABIC = SCRIPT_HAN + 4;
+  private static final int SCRIPT_GREEK = SCRIPT_HAN + 5;
+  private static final int SCRIPT_HEBREW = SCRIPT_HAN + 6;
+  private static final int SCRIPT_THAI = SCRIPT_HAN + 7;
+  private static final int LETTERS = SCRIPT_HAN + 8;
+  private static final int SCRATCH_SIZE = LETTERS + 1;
+
+  private static final int KEYWORD_TABLE_SIZE = 512;
+  private static final int NGRAM_TABLE_SIZE = 256;
+
+  private final char[][] keywordKeys = new char[KEYWORD_TABLE_SIZE][];
+  private final int[] keywordHashes = new int[KEYWORD_TABLE_SIZE];
+  private final int[] keywordMasks = new int[KEYWORD_TABLE_SIZE];
+
+  private final long[] ngramKeys = new long[NGRAM_TABLE_SIZE];
+  private final int[] ngramMasks = new int[NGRAM_TABLE_SIZE];
+  private final int[] ngramWeights = new int[NGRAM_TABLE_SIZE];
+
+  private final ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[SCRATCH_SIZE]);
+
+  public LanguageDetector() {
+    this.keywords("da",
+        "jeg", "mig", "dig", "hvordan", "også", "ikke", "med", "hej", "hvad", "dansk",
+        "være", "havde", "ville", "kunne", "skulle", "måske", "altså", "godt", "går");
+
+    this.keywords("de",
+        "ich", "mich", "dich", "wie", "geht", "haben", "der", "die", "das", "ein",
+        "eine", "nicht", "und", "aber", "mit", "von", "für", "bist", "deutsch", "heute");
+
+    this.keywords("sv",
+        "jag", "mig", "hur", "mår", "också", "inte", "med", "hej", "vad", "svenska",
+        "vara", "hade", "skulle", "kanske", "bra", "går");
+
+    this.keywords("no",
+        "jeg", "meg", "deg", "hvordan", "også", "ikke", "med", "hei", "hva", "norsk",
+        "være", "hadde", "ville", "kunne", "skulle", "kanskje", "bra", "går");
+
+    this.keywords("fr",
+        "je", "tu", "il", "elle", "nous", "vous", "ils", "elles", "est", "sont",
+        "le", "la", "les", "un", "une", "de", "du", "et", "mais", "pour", "avec", "français");
+
+    this.keywords("es",
+        "yo", "tú", "él", "ella", "nosotros", "vosotros", "ellos", "ellas", "es", "son",
+        "el", "la", "los", "las", "un", "una", "de", "del", "pero", "para", "español");
+
+    this.keywords("it",
+        "io", "tu", "lui", "lei", "noi", "voi", "loro", "è", "sono", "ha", "hanno",
+        "il", "la", "gli", "le", "un", "una", "di", "del", "per", "italiano");
+
+    this.keywords("pt",
+        "eu", "você", "ele", "ela", "nós", "vós", "eles", "elas", "é", "são",
+        "o", "a", "os", "as", "um", "uma", "de", "do", "mas", "para", "português");
+
+    this.keywords("en",
+        "the", "is", "are", "was", "were", "have", "has", "had", "will", "would",
+        "could", "should", "can", "may", "might", "what", "how", "when", "where", "english");
+
+    this.ngram(3, "ß", "de");
+    this.ngram(2, "sch", "de");
+    this.ngram(2, "ung", "de");
+    this.ngram(1, "ü", "de");
+    this.ngram(1, "ä", "de", "sv");
+    this.ngram(1, "ö", "de", "sv");
+    this.ngram(2, "æ", "da", "no");
+    this.ngram(2, "ø", "da", "no");
+    this.ngram(1, "å", "da", "sv", "no");
+    this.ngram(3, "ñ", "es");
+    this.ngram(3, "¿", "es");
+    this.ngram(3, "¡", "es");
+    this.ngram(3, "ció", "es");
+    this.ngram(3, "ã", "pt");
+    this.ngram(3, "õ", "pt");
+    this.ngram(3, "ção", "pt");
+    this.ngram(1, "nh", "pt");
+    this.ngram(1, "lh", "pt");
+    this.ngram(1, "ç", "fr", "pt");
+    this.ngram(2, "è", "fr", "it");
+    this.ngram(2, "ê", "fr", "pt");
+    this.ngram(2, "eau", "fr");
+    this.ngram(2, "oux", "fr");
+    this.ngram(2, "gli", "it");
+    this.ngram(2, "cch", "it");
+    this.ngram(1, "zz", "it");
+    this.ngram(2, "ò", "it");
+    this.ngram(2, "ù", "it", "fr");
+    this.ngram(1, "th", "en");
+    this.ngram(1, "wh", "en");
+    this.ngram(1, "ing", "en");
+  }
+
+  public String detect(CharSequence text) {
+    if (text == null) {
+      return UNKNOWN;
+    }
+
+    int[] scores = this.scratch.get();
+    for (int i = 0; i < SCRATCH_SIZE; i++) {
+      scores[i] = 0;
+    }
+
+    int length = text.length();
+    int tokenStart = -1;
+    int tokenHash = 0;
+    char previous = 0;
+    char beforePrevious = 0;
+
+    for (int i = 0; i <= length; i++) {
+      char c = i < length ? Character.toLowerCase(text.charAt(i)) : ' ';
+
+      if (Character.isLetter(c)) {
+        if (tokenStart < 0) {
+          tokenStart = i;
+          tokenHash = 0;
+          previous = 0;
+          beforePrevious = 0;
+        }
+
+        tokenHash = 31 * tokenHash + c;
+        this.countScript(c, scores);
+      } else if (tokenStart >= 0) {
+        this.scoreKeyword(text, tokenStart, i, tokenHash, scores);
+        tokenStart = -1;
+        previous = 0;
+        beforePrevious = 0;
+      }
+
+      this.scoreNgram(c, 0, 0, scores);
+      if (previous != 0) {
+        this.scoreNgram(previous, c, 0, scores);
+        if (beforePrevious != 0) {
+          this.scoreNgram(beforePrevious, previous, c, scores);
+        }
+      }
+
+      if (tokenStart >= 0) {
+        beforePrevious = previous;
+        previous = c;
+      }
+    }
+
+    String script = scriptLanguage(scores);
+    if (script != null) {
+      return script;
+    }
+
+    int best = -1;
+    int bestScore = 0;
+    for (int i = 0; i < LANGUAGES.length; i++) {
+      if (scores[i] > bestScore) {
+        bestScore = scores[i];
+        best = i;
+      }
+    }
+
+    return best < 0 ? UNKNOWN : LANGUAGES[best];
+  }
+
+  private void countScript(char c, int[] scores) {
+    scores[LETTERS]++;
+    if (c < 0x0250) {
+      return;
+    }
+
+    switch (UnicodeScript.of(c)) {
+      case HAN:
+        scores[SCRIPT_HAN]++;
+        break;
+      case HIRAGANA:
+      case KATAKANA:
+        scores[SCRIPT_KANA]++;
+        break;
+      case HANGUL:
+        scores[SCRIPT_HANGUL]++;
+        break;
+      case CYRILLIC:
+        scores[SCRIPT_CYRILLIC]++;
+        break;
+      case ARABIC:
+        scores[SCRIPT_ARABIC]++;
+        break;
+      case GREEK:
+        scores[SCRIPT_GREEK]++;
+        break;
+      case HEBREW:
+        scores[SCRIPT_HEBREW]++;
+        break;
+      case THAI:
+        scores[SCRIPT_THAI]++;
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static String scriptLanguage(int[] scores) {
+    int letters = scores[LETTERS];
+    if (letters == 0) {
+      return null;
+    }
+
+    if (scores[SCRIPT_KANA] > 0 && scores[SCRIPT_KANA] + scores[SCRIPT_HAN] > letters / 2) {
+      return "ja";
+    }
+
+    if (scores[SCRIPT_HAN] > letters / 2) {
+      return "zh";
+    }
+
+    if (scores[SCRIPT_HANGUL] > letters / 2) {
+      return "ko";
+    }
+
+    if (scores[SCRIPT_CYRILLIC] > letters / 2) {
+      return "ru";
+    }
+
+    if (scores[SCRIPT_ARABIC] > letters / 2) {
+      return "ar";
+    }
+
+    if (scores[SCRIPT_GREEK] > letters / 2) {
+      return "el";
+    }
+
+    if (scores[SCRIPT_HEBREW] > letters / 2) {
+      return "he";
+    }
+
+    if (scores[SCRIPT_THAI] > letters / 2) {
+      return "th";
+    }
+
+    return null;
+  }
+
+  private void scoreKeyword(CharSequence text, int start, int end, int hash, int[] scores) {
+    int slot = hash & (KEYWORD_TABLE_SIZE - 1);
+
+    while (this.keywordKeys[slot] != null) {
+      if (this.keywordHashes[slot] == hash && matches(this.keywordKeys[slot], text, start, end)) {
+        addMask(scores, this.keywordMasks[slot], KEYWORD_WEIGHT);
+        return;
+      }
+      slot = (slot + 1) & (KEYWORD_TABLE_SIZE - 1);
+    }
+  }
+
+  private void scoreNgram(int first, int second, int third, int[] scores) {
+    long key = packNgram(first, second, third);
+    int slot = mix(key) & (NGRAM_TABLE_SIZE - 1);
+
+    while (this.ngramKeys[slot] != 0L) {
+      if (this.ngramKeys[slot] == key) {
+        addMask(scores, this.ngramMasks[slot], this.ngramWeights[slot]);
+        return;
+      }
+      slot = (slot + 1) & (NGRAM_TABLE_SIZE - 1);
+    }
+  }
+
+  private void keywords(String language, String... words) {
+    int bit = 1 << languageIndex(language);
+
+    for (String word : words) {
+      int hash = 0;
+      for (int i = 0; i < word.length(); i++) {
+        hash = 31 * hash + word.charAt(i);
+      }
+
+      int slot = hash & (KEYWORD_TABLE_SIZE - 1);
+      while (this.keywordKeys[slot] != null && !word.contentEquals(new String(this.keywordKeys[slot]))) {
+        slot = (slot + 1) & (KEYWORD_TABLE_SIZE - 1);
+      }
+
+      this.keywordKeys[slot] = word.toCharArray();
+      this.keywordHashes[slot] = hash;
+      this.keywordMasks[slot] |= bit;
+    }
+  }
+
+  private void ngram(int weight, String gram, String... languages) {
+    long key = packNgram(gram.charAt(0),
+        gram.length() > 1 ? gram.charAt(1) : 0,
+        gram.length() > 2 ? gram.charAt(2) : 0);
+
+    int mask = 0;
+    for (String language : languages) {
+      mask |= 1 << languageIndex(language);
+    }
+
+    int slot = mix(key) & (NGRAM_TABLE_SIZE - 1);
+    while (this.ngramKeys[slot] != 0L && this.ngramKeys[slot] != key) {
+      slot = (slot + 1) & (NGRAM_TABLE_SIZE - 1);
+    }
+
+    this.ngramKeys[slot] = key;
+    this.ngramMasks[slot] = mask;
+    this.ngramWeights[slot] = weight;
+  }
+
+  private static boolean matches(char[] keyword, CharSequence text, int start, int end) {
+    if (keyword.length != end - start) {
+      return false;
+    }
+
+    for (int i = 0; i < keyword.length; i++) {
+      if (keyword[i] != Character.toLowerCase(text.charAt(start + i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void addMask(int[] scores, int mask, int weight) {
+    for (int i = 0; i < LANGUAGES.length; i++) {
+      if ((mask & (1 << i)) != 0) {
+        scores[i] += weight;
+      }
+    }
+  }
+
+  private static long packNgram(int first, int second, int third) {
+    return ((long) first << 32) | ((long) second << 16) | third;
+  }
+
+  private static int mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static int languageIndex(String language) {
+    for (int i = 0; i < LANGUAGES.length; i++) {
+      if (LANGUAGES[i].equals(language)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unknown language: " + language);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.bodywarn.autotranslator.detect;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Remembers which language each chat sender writes in and how often their lines come back
+// unchanged, so detection and the backends can be skipped for players that are well known.
+// Profiles live in a bounded LRU map; counts are halved once a profile has seen enough lines,
+// which lets it follow a player who switches language.
+public class SenderProfiles {
+
+  private static final int MAX_LANGUAGES = 4;
+  private static final int MIN_SAMPLES = 5;
+  private static final int DECAY_AT = 32;
+  private static final double CONFIDENT_SHARE = 0.8D;
+
+  // Every n-th line from a confident sender is detected anyway to keep the profile honest.
+  private static final int RECHECK_EVERY = 8;
+
+  private final LinkedHashMap<String, Profile> profiles;
+
+  public SenderProfiles(int maxSenders) {
+    this.profiles = new LinkedHashMap<String, Profile>(64, 0.75F, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Profile> eldest) {
+        return this.size() > maxSenders;
+      }
+    };
+  }
+
+  // Returns the target language when the sender's lines usually need no translation, the
+  // sender's usual language when it is clear, or null when the line should be detected.
+  public String predict(String sender, String targetLang) {
+    synchronized (this.profiles) {
+      Profile profile = this.profiles.get(key(sender));
+      if (profile == null || ++profile.predictions % RECHECK_EVERY == 0) {
+        return null;
+      }
+
+      if (profile.results >= MIN_SAMPLES && profile.unchanged >= profile.results * CONFIDENT_SHARE) {
+        return targetLang;
+      }
+      return profile.dominantLanguage();
+    }
+  }
+
+  public void recordLanguage(String sender, String language) {
+    if (LanguageDetector.UNKNOWN.equals(language)) {
+      return;
+    }
+
+    synchronized (this.profiles) {
+      this.profiles.computeIfAbsent(key(sender), key -> new Profile()).recordLanguage(language);
+    }
+  }
+
+  public void recordResult(String sender, boolean unchanged) {
+    synchronized (this.profiles) {
+      this.profiles.computeIfAbsent(key(sender), key -> new Profile()).recordResult(unchanged);
+    }
+  }
+
+  public int size() {
+    synchronized (this.profiles) {
+      return this.profiles.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (this.profiles) {
+      this.profiles.clear();
+    }
+  }
+
+  private static String key(String sender) {
+    return sender.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Profile {
+
+    private final String[] languages = new String[MAX_LANGUAGES];
+    private final int[] counts = new int[MAX_LANGUAGES];
+    private int detected;
+    private int results;
+    private int unchanged;
+    private int predictions;
+
+    private void recordLanguage(String language) {
+      int slot = 0;
+      for (int i = 0; i < MAX_LANGUAGES; i++) {
+        if (language.equals(this.languages[i])) {
+          slot = i;
+          break;
+        }
+        if (this.counts[i] < this.counts[slot]) {
+          slot = i;
+        }
+      }
+
+      if (!language.equals(this.languages[slot])) {
+        this.detected -= this.counts[slot];
+        this.languages[slot] = language;
+        this.counts[slot] = 0;
+      }
+
+      this.counts[slot]++;
+      if (++this.detected >= DECAY_AT) {
+        this.detected = 0;
+        for (int i = 0; i < MAX_LANGUAGES; i++) {
+          this.counts[i] /= 2;
+          this.detected += this.counts[i];
+        }
+      }
+    }
+
+    private void recordResult(boolean unchanged) {
+      this.results++;
+      if (unchanged) {
+        this.unchanged++;
+      }
+
+      if (this.results >= DECAY_AT) {
+        this.results /= 2;
+        this.unchanged /= 2;
+      }
+    }
+
+    private String dominantLanguage() {
+      if (this.detected < MIN_SAMPLES) {
+        return null;
+      }
+
+      for (int i = 0; i < MAX_LANGUAGES; i++) {
+        if (this.counts[i] >= this.detected * CONFIDENT_SHARE) {
+          return this.languages[i];
+        }
+      }
+      return null;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.bodywarn.autotranslator.hud;
+
+import com.bodywarn.autotranslator.AutoTranslatorAddon;
+import com.bodywarn.autotranslator.metrics.MetricsSnapshot;
+import net.labymod.api.client.gui.hud.hudwidget.text.TextHudWidget;
+import net.labymod.api.client.gui.hud.hudwidget.text.TextHudWidgetConfig;
+import net.labymod.api.client.gui.hud.hudwidget.text.TextLine;
+
+// Debug overlay with the numbers players are asked for when translations feel slow.
+public class TranslationMetricsWidget extends TextHudWidget<TextHudWidgetConfig> {
+
+  private static final int UPDATE_INTERVAL_TICKS = 10;
+
+  private final AutoTranslatorAddon addon;
+
+  private TextLine hoverLine;
+  private TextLine translationLine;
+  private TextLine cacheLine;
+  private TextLine queueLine;
+  private TextLine skippedLine;
+  private TextLine servicesLine;
+  private int ticks;
+
+  public TranslationMetricsWidget(AutoTranslatorAddon addon) {
+    super("translation_metrics");
+    this.addon = addon;
+  }
+
+  @Override
+  public void load(TextHudWidgetConfig config) {
+    super.load(config);
+
+    this.hoverLine = this.createLine("Hover p50/p99", "-");
+    this.translationLine = this.createLine("Translation p50/p99", "-");
+    this.cacheLine = this.createLine("Cache hits", "-");
+    this.queueLine = this.createLine("Queue", "-");
+    this.skippedLine = this.createLine("Skipped", "-");
+    this.servicesLine = this.createLine("Services up", "-");
+  }
+
+  @Override
+  public void onTick(boolean isEditorContext) {
+    if (this.ticks++ % UPDATE_INTERVAL_TICKS != 0 || this.addon.getTranslationService() == null) {
+      return;
+    }
+
+    MetricsSnapshot snapshot = this.addon.getTranslationService().getMetricsSnapshot();
+    this.hoverLine.updateAndFlush(String.format("%.0f / %.0f ms",
+        snapshot.getHoverLatency().getP50Millis(), snapshot.getHoverLatency().getP99Millis()));
+    this.translationLine.updateAndFlush(String.format("%.0f / %.0f ms",
+        snapshot.getTranslationLatency().getP50Millis(), snapshot.getTranslationLatency().getP99Millis()));
+    this.cacheLine.updateAndFlush(String.format("%.0f%% of %d",
+        snapshot.getCacheStats().getHitRate() * 100.0D, snapshot.getCacheStats().getEntries()));
+    this.queueLine.updateAndFlush(String.format("%d waiting, %d running, %d dropped",
+        snapshot.getQueueDepth(), snapshot.getInFlight(), snapshot.getDropped()));
+    this.skippedLine.updateAndFlush(String.format("%d short, %d commands, %d already target",
+        snapshot.getSkippedShort(), snapshot.getSkippedCommands(), snapshot.getAlreadyInTarget()));
+    this.servicesLine.updateAndFlush(snapshot.getAvailableBackends() + " / " + snapshot.getBackends().size());
+  }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.bodywarn.autotranslator.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free log-linear histogram of microsecond latencies. Each power of two is split into eight
+// buckets, so percentiles are within about 6% of the true value at a fixed 2.5 KB per histogram.
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+  private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+  private static final int MAX_EXPONENT = 40;
+  private static final int BUCKET_COUNT = LINEAR_BUCKETS + (MAX_EXPONENT - FIRST_EXPONENT + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalMicros = new LongAdder();
+  private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0L);
+
+  public void recordNanos(long nanos) {
+    this.recordMicros(nanos / 1_000L);
+  }
+
+  public void recordMicros(long micros) {
+    long value = Math.max(0L, micros);
+    this.buckets.incrementAndGet(bucketIndex(value));
+    this.count.increment();
+    this.totalMicros.add(value);
+    this.maxMicros.accumulate(value);
+  }
+
+  public long count() {
+    return this.count.sum();
+  }
+
+  public double percentileMillis(double percentile) {
+    long[] counts = this.snapshotCounts();
+    return percentileMillis(counts, sum(counts), percentile);
+  }
+
+  public Summary summary() {
+    long[] counts = this.snapshotCounts();
+    long total = sum(counts);
+    double mean = total == 0L ? 0.0D : this.totalMicros.sum() / (double) total / 1_000.0D;
+    return new Summary(total, mean, percentileMillis(counts, total, 0.5D), percentileMillis(counts, total, 0.9D),
+        percentileMillis(counts, total, 0.99D), this.maxMicros.get() / 1_000.0D);
+  }
+
+  private long[] snapshotCounts() {
+    long[] counts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = this.buckets.get(i);
+    }
+    return counts;
+  }
+
+  private static long sum(long[] counts) {
+    long total = 0L;
+    for (long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  private static double percentileMillis(long[] counts, long total, double percentile) {
+    if (total == 0L) {
+      return 0.0D;
+    }
+
+    long rank = Math.max(1L, (long) Math.ceil(percentile * total));
+    long seen = 0L;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        long lower = bucketLowerBound(i);
+        long upper = i + 1 < BUCKET_COUNT ? bucketLowerBound(i + 1) : lower;
+        return (lower + upper) / 2.0D / 1_000.0D;
+      }
+    }
+    return bucketLowerBound(BUCKET_COUNT - 1) / 1_000.0D;
+  }
+
+  static int bucketIndex(long value) {
+    if (value < LINEAR_BUCKETS) {
+      return (int) value;
+    }
+
+    int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+    int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketLowerBound(int index) {
+    if (index < LINEAR_BUCKETS) {
+      return index;
+    }
+
+    int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_EXPONENT;
+    int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+    return (1L << exponent) + ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+  }
+
+  public static final class Summary {
+
+    private final long count;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    private Summary(long count, double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+        double maxMillis) {
+      this.count = count;
+      this.meanMillis = meanMillis;
+      this.p50Millis = p50Millis;
+      this.p90Millis = p90Millis;
+      this.p99Millis = p99Millis;
+      this.maxMillis = maxMillis;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public double getMeanMillis() {
+      return meanMillis;
+    }
+
+    public double getP50Millis() {
+      return p50Millis;
+    }
+
+    public double getP90Millis() {
+      return p90Millis;
+    }
+
+    public double getP99Millis() {
+      return p99Millis;
+    }
+
+    public double getMaxMillis() {
+      return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("n=%d, mean=%.1fms, p50=%.1fms, p90=%.1fms, p99=%.1fms, max=%.1fms",
+          count, meanMillis, p50Millis, p90Millis, p99Millis, maxMillis);
+    }
+  }
+}
\ No newline at end of file
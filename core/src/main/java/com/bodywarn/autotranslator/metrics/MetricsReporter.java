@@ -0,0 +1,71 @@
+package com.bodywarn.autotranslator.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Appends a metrics summary to a local file every few minutes. The file is rotated once it
+// passes its size cap, keeping one previous generation.
+public class MetricsReporter {
+
+  private static final long MAX_FILE_BYTES = 1024L * 1024L;
+
+  private final Supplier<MetricsSnapshot> snapshots;
+  private final Path file;
+  private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "AutoTranslator-Metrics");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private ScheduledFuture<?> task;
+
+  public MetricsReporter(Supplier<MetricsSnapshot> snapshots, Path file) {
+    this.snapshots = snapshots;
+    this.file = file;
+  }
+
+  // 0 turns the summary off.
+  public synchronized void setIntervalMinutes(int minutes) {
+    if (this.task != null) {
+      this.task.cancel(false);
+      this.task = null;
+    }
+
+    if (minutes > 0) {
+      this.task = this.timer.scheduleAtFixedRate(this::write, minutes, minutes, TimeUnit.MINUTES);
+    }
+  }
+
+  public void close() {
+    this.timer.shutdownNow();
+  }
+
+  private void write() {
+    String entry = "=== " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + " ===\n"
+        + this.snapshots.get() + "\n";
+
+    try {
+      Files.createDirectories(this.file.getParent());
+      if (Files.exists(this.file) && Files.size(this.file) > MAX_FILE_BYTES) {
+        Files.move(this.file, this.file.resolveSibling(this.file.getFileName() + ".old"),
+            StandardCopyOption.REPLACE_EXISTING);
+      }
+
+      Files.write(this.file, entry.getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      System.err.println("[AutoTranslator] Could not write metrics summary: " + e.getMessage());
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.bodywarn.autotranslator.metrics;
+
+import com.bodywarn.autotranslator.backend.BackendHealth;
+import com.bodywarn.autotranslator.cache.TranslationCache;
+
+import java.util.List;
+import java.util.Map;
+
+public final class MetricsSnapshot {
+
+  private final LatencyHistogram.Summary hoverLatency;
+  private final LatencyHistogram.Summary translationLatency;
+  private final TranslationCache.CacheStats cacheStats;
+  private final List<BackendHealth.BackendStatus> backends;
+  private final int queueDepth;
+  private final int inFlight;
+  private final int executorQueue;
+  private final long dropped;
+  private final long cancelled;
+  private final long coalesced;
+  private final long batched;
+  private final long received;
+  private final long skippedShort;
+  private final long skippedCommands;
+  private final long alreadyInTarget;
+  private final long segmentHits;
+  private final long segmentMisses;
+  private final long templateHits;
+  private final long phraseHits;
+  private final long profileHits;
+  private final long prewarmed;
+  private final long sharedHits;
+  private final long sharedMisses;
+  private final Map<String, Long> detections;
+
+  public MetricsSnapshot(TranslationMetrics metrics, TranslationCache.CacheStats cacheStats,
+      List<BackendHealth.BackendStatus> backends, int queueDepth, int inFlight, int executorQueue,
+      long dropped, long cancelled, long coalesced, long batched) {
+    this.hoverLatency = metrics.getHoverLatency().summary();
+    this.translationLatency = metrics.getTranslationLatency().summary();
+    this.cacheStats = cacheStats;
+    this.backends = backends;
+    this.queueDepth = queueDepth;
+    this.inFlight = inFlight;
+    this.executorQueue = executorQueue;
+    this.dropped = dropped;
+    this.cancelled = cancelled;
+    this.coalesced = coalesced;
+    this.batched = batched;
+    this.received = metrics.getReceived();
+    this.skippedShort = metrics.getSkippedShort();
+    this.skippedCommands = metrics.getSkippedCommands();
+    this.alreadyInTarget = metrics.getAlreadyInTarget();
+    this.segmentHits = metrics.getSegmentHits();
+    this.segmentMisses = metrics.getSegmentMisses();
+    this.templateHits = metrics.getTemplateHits();
+    this.phraseHits = metrics.getPhraseHits();
+    this.profileHits = metrics.getProfileHits();
+    this.prewarmed = metrics.getPrewarmed();
+    this.sharedHits = metrics.getSharedHits();
+    this.sharedMisses = metrics.getSharedMisses();
+    this.detections = metrics.getDetections();
+  }
+
+  public LatencyHistogram.Summary getHoverLatency() {
+    return hoverLatency;
+  }
+
+  public LatencyHistogram.Summary getTranslationLatency() {
+    return translationLatency;
+  }
+
+  public TranslationCache.CacheStats getCacheStats() {
+    return cacheStats;
+  }
+
+  public List<BackendHealth.BackendStatus> getBackends() {
+    return backends;
+  }
+
+  public int getQueueDepth() {
+    return queueDepth;
+  }
+
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  public int getExecutorQueue() {
+    return executorQueue;
+  }
+
+  public long getDropped() {
+    return dropped;
+  }
+
+  public long getCancelled() {
+    return cancelled;
+  }
+
+  public long getCoalesced() {
+    return coalesced;
+  }
+
+  public long getBatched() {
+    return batched;
+  }
+
+  public long getReceived() {
+    return received;
+  }
+
+  public long getSkippedShort() {
+    return skippedShort;
+  }
+
+  public long getSkippedCommands() {
+    return skippedCommands;
+  }
+
+  public long getAlreadyInTarget() {
+    return alreadyInTarget;
+  }
+
+  public long getSegmentHits() {
+    return segmentHits;
+  }
+
+  public long getSegmentMisses() {
+    return segmentMisses;
+  }
+
+  public long getTemplateHits() {
+    return templateHits;
+  }
+
+  public long getPhraseHits() {
+    return phraseHits;
+  }
+
+  public long getProfileHits() {
+    return profileHits;
+  }
+
+  public long getPrewarmed() {
+    return prewarmed;
+  }
+
+  public long getSharedHits() {
+    return sharedHits;
+  }
+
+  public long getSharedMisses() {
+    return sharedMisses;
+  }
+
+  public Map<String, Long> getDetections() {
+    return detections;
+  }
+
+  public long getAvailableBackends() {
+    return backends.stream().filter(status -> status.getState() != BackendHealth.State.OPEN).count();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder out = new StringBuilder();
+    out.append("hover latency:       ").append(hoverLatency).append('\n');
+    out.append("translation latency: ").append(translationLatency).append('\n');
+    out.append("cache:               ").append(cacheStats).append(", prewarmed=").append(prewarmed)
+        .append(", shared hits=").append(sharedHits).append(", shared misses=").append(sharedMisses).append('\n');
+    out.append(String.format("segments:            hits=%d, misses=%d, template hits=%d, phrase hits=%d%n",
+        segmentHits, segmentMisses, templateHits, phraseHits));
+    out.append(String.format("queue:               waiting=%d, in flight=%d, executor=%d, dropped=%d, cancelled=%d%n",
+        queueDepth, inFlight, executorQueue, dropped, cancelled));
+    out.append(String.format("messages:            received=%d, too short=%d, commands=%d, coalesced=%d, batched=%d%n",
+        received, skippedShort, skippedCommands, coalesced, batched));
+    out.append(String.format("detection:           %s, already in target=%d, from sender profile=%d%n",
+        detections, alreadyInTarget, profileHits));
+    for (BackendHealth.BackendStatus backend : backends) {
+      out.append("backend:             ").append(backend).append('\n');
+    }
+    return out.toString();
+  }
+}
\ No newline at end of file
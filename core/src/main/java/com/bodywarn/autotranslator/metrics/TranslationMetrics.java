@@ -0,0 +1,146 @@
+package com.bodywarn.autotranslator.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and histograms fed from the chat and translation paths. Recording never locks, so it
+// stays on all the time; reading builds a snapshot.
+public class TranslationMetrics {
+
+  private final LatencyHistogram hoverLatency = new LatencyHistogram();
+  private final LatencyHistogram translationLatency = new LatencyHistogram();
+
+  private final LongAdder received = new LongAdder();
+  private final LongAdder skippedShort = new LongAdder();
+  private final LongAdder skippedCommands = new LongAdder();
+  private final LongAdder alreadyInTarget = new LongAdder();
+  private final LongAdder segmentHits = new LongAdder();
+  private final LongAdder segmentMisses = new LongAdder();
+  private final LongAdder templateHits = new LongAdder();
+  private final LongAdder phraseHits = new LongAdder();
+  private final LongAdder profileHits = new LongAdder();
+  private final LongAdder prewarmed = new LongAdder();
+  private final LongAdder sharedHits = new LongAdder();
+  private final LongAdder sharedMisses = new LongAdder();
+  private final ConcurrentHashMap<String, LongAdder> detections = new ConcurrentHashMap<>();
+
+  public void recordReceived() {
+    this.received.increment();
+  }
+
+  public void recordSkipped(boolean tooShort) {
+    (tooShort ? this.skippedShort : this.skippedCommands).increment();
+  }
+
+  public void recordDetection(String language, boolean alreadyInTarget) {
+    this.detections.computeIfAbsent(language, key -> new LongAdder()).increment();
+    if (alreadyInTarget) {
+      this.alreadyInTarget.increment();
+    }
+  }
+
+  public void recordSegments(int hits, int misses) {
+    this.segmentHits.add(hits);
+    this.segmentMisses.add(misses);
+  }
+
+  public void recordTemplateHit() {
+    this.templateHits.increment();
+  }
+
+  public void recordPhraseHit() {
+    this.phraseHits.increment();
+  }
+
+  public void recordProfileHit() {
+    this.profileHits.increment();
+  }
+
+  public void recordPrewarmed() {
+    this.prewarmed.increment();
+  }
+
+  public void recordSharedHit() {
+    this.sharedHits.increment();
+  }
+
+  public void recordSharedMiss() {
+    this.sharedMisses.increment();
+  }
+
+  // From the chat line arriving (or the hover dwell completing) until its hover is set.
+  public void recordHoverLatency(long nanos) {
+    this.hoverLatency.recordNanos(nanos);
+  }
+
+  // End to end, from detection until a translation is back: shared cache lookup, batch window,
+  // queueing and retries included. Local cache hits and lines already in the target language are
+  // excluded. Per-service round trips are tracked by BackendHealth.
+  public void recordTranslationLatency(long nanos) {
+    this.translationLatency.recordNanos(nanos);
+  }
+
+  public LatencyHistogram getHoverLatency() {
+    return hoverLatency;
+  }
+
+  public LatencyHistogram getTranslationLatency() {
+    return translationLatency;
+  }
+
+  public long getReceived() {
+    return received.sum();
+  }
+
+  public long getSkippedShort() {
+    return skippedShort.sum();
+  }
+
+  public long getSkippedCommands() {
+    return skippedCommands.sum();
+  }
+
+  public long getAlreadyInTarget() {
+    return alreadyInTarget.sum();
+  }
+
+  public long getSegmentHits() {
+    return segmentHits.sum();
+  }
+
+  public long getSegmentMisses() {
+    return segmentMisses.sum();
+  }
+
+  public long getTemplateHits() {
+    return templateHits.sum();
+  }
+
+  public long getPhraseHits() {
+    return phraseHits.sum();
+  }
+
+  public long getProfileHits() {
+    return profileHits.sum();
+  }
+
+  public long getPrewarmed() {
+    return prewarmed.sum();
+  }
+
+  public long getSharedHits() {
+    return sharedHits.sum();
+  }
+
+  public long getSharedMisses() {
+    return sharedMisses.sum();
+  }
+
+  public Map<String, Long> getDetections() {
+    Map<String, Long> counts = new TreeMap<>();
+    this.detections.forEach((language, count) -> counts.put(language, count.sum()));
+    return counts;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,310 @@
+package com.bodywarn.autotranslator.phrase;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Answers short, common chat lines ("gg", "merci", "wie geht's") from a bundled phrase table
+// without touching the network. The table is read on first use on the given executor; until it
+// is ready lookups miss. User overrides in phrases.txt ("de: gg = gutes Spiel") win over it.
+public class PhraseDictionary {
+
+  private static final String BUNDLED_TABLE = "/assets/autotranslator/phrases/phrases.tsv";
+  private static final String UNIVERSAL_ROW = "*";
+  private static final String ALL_TARGETS = "*";
+  private static final int MAX_PHRASE_CHARS = 48;
+
+  private final Path overridesFile;
+  private final Executor loader;
+  private final AtomicBoolean loadStarted = new AtomicBoolean();
+  private final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+  private volatile Table table;
+
+  public PhraseDictionary(Path overridesFile, Executor loader) {
+    this.overridesFile = overridesFile;
+    this.loader = loader;
+  }
+
+  // Returns the translation, the text itself when it is already in the target language, or
+  // null when the phrase is unknown.
+  public String lookup(String text, String targetLang) {
+    if (text.length() > MAX_PHRASE_CHARS) {
+      return null;
+    }
+
+    Table table = this.table;
+    if (table == null) {
+      if (this.loadStarted.compareAndSet(false, true)) {
+        this.loader.execute(this::load);
+      }
+      return null;
+    }
+
+    StringBuilder key = this.buffer.get();
+    int suffixStart = normalize(text, key);
+    if (key.length() == 0) {
+      return null;
+    }
+
+    int slot = table.find(key);
+    if (slot < 0) {
+      return null;
+    }
+
+    int language = table.languageIndex(targetLang);
+    if (language < 0) {
+      return null;
+    }
+
+    int concept = table.concepts[slot];
+    if (concept < 0 || (table.nativeMasks[slot] & (1 << language)) != 0) {
+      return text;
+    }
+
+    String phrase = table.outputs[concept][language];
+    if (phrase == null) {
+      return null;
+    }
+
+    // Keep the sender's capitalisation and trailing punctuation ("Thanks!" -> "Danke!").
+    if (Character.isUpperCase(text.charAt(0)) && Character.isLowerCase(phrase.charAt(0))) {
+      phrase = Character.toUpperCase(phrase.charAt(0)) + phrase.substring(1);
+    }
+    return phrase + text.substring(suffixStart);
+  }
+
+  public void reload() {
+    this.loadStarted.set(true);
+    this.loader.execute(this::load);
+  }
+
+  public int size() {
+    Table table = this.table;
+    return table == null ? 0 : table.size;
+  }
+
+  private void load() {
+    Builder builder = new Builder();
+    try (InputStream input = PhraseDictionary.class.getResourceAsStream(BUNDLED_TABLE)) {
+      if (input != null) {
+        builder.readBundled(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+      }
+    } catch (IOException e) {
+      System.err.println("[AutoTranslator] Could not read phrase table: " + e.getMessage());
+    }
+
+    if (this.overridesFile != null && Files.isRegularFile(this.overridesFile)) {
+      try (BufferedReader reader = Files.newBufferedReader(this.overridesFile, StandardCharsets.UTF_8)) {
+        builder.readOverrides(reader);
+      } catch (IOException e) {
+        System.err.println("[AutoTranslator] Could not read phrase overrides: " + e.getMessage());
+      }
+    }
+
+    this.table = builder.build();
+  }
+
+  // Lowercases, collapses whitespace and unifies apostrophes into the buffer. Trailing
+  // punctuation is left out of the key; the returned index is where it starts in the text.
+  static int normalize(String text, StringBuilder out) {
+    out.setLength(0);
+
+    int end = text.length();
+    while (end > 0 && isTrailing(text.charAt(end - 1))) {
+      end--;
+    }
+
+    for (int i = 0; i < end; i++) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+          out.append(' ');
+        }
+        continue;
+      }
+      out.append(c == '’' || c == '`' ? '\'' : Character.toLowerCase(c));
+    }
+
+    if (out.length() > 0 && out.charAt(out.length() - 1) == ' ') {
+      out.setLength(out.length() - 1);
+    }
+    return end;
+  }
+
+  private static boolean isTrailing(char c) {
+    return Character.isWhitespace(c) || c == '!' || c == '?' || c == '.' || c == '~'
+        || c == '…' || c == '！' || c == '？' || c == '。';
+  }
+
+  private static String normalize(String text) {
+    StringBuilder out = new StringBuilder(text.length());
+    normalize(text, out);
+    return out.toString();
+  }
+
+  // Open-addressed table from normalized phrase to concept; the phrases live in one array and
+  // each concept's outputs in a small array indexed by target language.
+  private static final class Table {
+
+    private final String[] languages;
+    private final String[] keys;
+    private final int[] concepts;
+    private final int[] nativeMasks;
+    private final String[][] outputs;
+    private final int size;
+
+    private Table(String[] languages, Map<String, int[]> entries, List<String[]> outputs) {
+      this.languages = languages;
+      this.outputs = outputs.toArray(new String[0][]);
+      this.size = entries.size();
+
+      int capacity = Integer.highestOneBit(Math.max(4, this.size * 2 - 1)) << 1;
+      this.keys = new String[capacity];
+      this.concepts = new int[capacity];
+      this.nativeMasks = new int[capacity];
+
+      for (Map.Entry<String, int[]> entry : entries.entrySet()) {
+        int slot = mix(entry.getKey().hashCode()) & (capacity - 1);
+        while (this.keys[slot] != null) {
+          slot = (slot + 1) & (capacity - 1);
+        }
+        this.keys[slot] = entry.getKey();
+        this.concepts[slot] = entry.getValue()[0];
+        this.nativeMasks[slot] = entry.getValue()[1];
+      }
+    }
+
+    private int find(CharSequence key) {
+      // Same hash as String.hashCode(), computed without copying the buffer.
+      int hash = 0;
+      for (int i = 0; i < key.length(); i++) {
+        hash = 31 * hash + key.charAt(i);
+      }
+
+      int mask = this.keys.length - 1;
+      for (int slot = mix(hash) & mask; this.keys[slot] != null; slot = (slot + 1) & mask) {
+        if (this.keys[slot].contentEquals(key)) {
+          return slot;
+        }
+      }
+      return -1;
+    }
+
+    private int languageIndex(String code) {
+      for (int i = 0; i < this.languages.length; i++) {
+        if (this.languages[i].equals(code)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private static int mix(int hash) {
+      hash *= 0x9E3779B1;
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  private static final class Builder {
+
+    // phrase -> {concept, bitmask of languages the phrase is native to}; concept -1 is neutral.
+    private final Map<String, int[]> entries = new LinkedHashMap<>();
+    private final List<String[]> outputs = new ArrayList<>();
+    private String[] languages = new String[0];
+
+    private void readBundled(BufferedReader reader) throws IOException {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+
+        String[] cells = line.split("\t", -1);
+        if (this.languages.length == 0) {
+          this.languages = cells;
+          continue;
+        }
+
+        if (cells[0].equals(UNIVERSAL_ROW)) {
+          for (int i = 1; i < cells.length; i++) {
+            for (String phrase : cells[i].split("\\|")) {
+              this.entries.putIfAbsent(normalize(phrase), new int[]{-1, 0});
+            }
+          }
+          continue;
+        }
+
+        int concept = this.outputs.size();
+        String[] conceptOutputs = new String[this.languages.length];
+        for (int language = 0; language < Math.min(cells.length, this.languages.length); language++) {
+          if (cells[language].isEmpty()) {
+            continue;
+          }
+
+          String[] phrases = cells[language].split("\\|");
+          conceptOutputs[language] = phrases[0];
+          for (String phrase : phrases) {
+            int[] entry = this.entries.computeIfAbsent(normalize(phrase), key -> new int[]{concept, 0});
+            // A phrase listed under several concepts keeps the first one.
+            if (entry[0] == concept) {
+              entry[1] |= 1 << language;
+            }
+          }
+        }
+        this.outputs.add(conceptOutputs);
+      }
+    }
+
+    private void readOverrides(BufferedReader reader) throws IOException {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        int colon = line.indexOf(':');
+        int equals = line.indexOf('=', colon + 1);
+        if (line.isEmpty() || line.startsWith("#") || colon <= 0 || equals <= colon + 1) {
+          continue;
+        }
+
+        String target = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        String phrase = normalize(line.substring(colon + 1, equals));
+        String translation = line.substring(equals + 1).trim();
+        if (phrase.isEmpty() || translation.isEmpty()) {
+          continue;
+        }
+
+        // Copy the concept so the override does not leak to other phrases that share it.
+        int[] entry = this.entries.get(phrase);
+        String[] conceptOutputs = entry != null && entry[0] >= 0
+            ? this.outputs.get(entry[0]).clone() : new String[this.languages.length];
+        int nativeMask = entry != null && entry[0] >= 0 ? entry[1] : 0;
+
+        for (int language = 0; language < this.languages.length; language++) {
+          if (target.equals(ALL_TARGETS) || target.equals(this.languages[language])) {
+            conceptOutputs[language] = translation;
+            nativeMask &= ~(1 << language);
+          }
+        }
+
+        this.entries.put(phrase, new int[]{this.outputs.size(), nativeMask});
+        this.outputs.add(conceptOutputs);
+      }
+    }
+
+    private Table build() {
+      return new Table(Arrays.copyOf(this.languages, this.languages.length), this.entries, this.outputs);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.bodywarn.autotranslator.schedule;
+
+public class DroppedTranslationException extends RuntimeException {
+
+  public DroppedTranslationException(String message) {
+    super(message, null, false, false);
+  }
+}
\ No newline at end of file
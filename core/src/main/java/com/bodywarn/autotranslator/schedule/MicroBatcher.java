@@ -0,0 +1,213 @@
+package com.bodywarn.autotranslator.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Collects lines with the same source and target language for a short window and sends them as
+// one newline-joined request. If the translation does not split back into the same number of
+// lines, every line is sent on its own instead. Lines that belong together (the uncached
+// segments of one message) can also be sent as a batch right away. Each line carries the chat
+// line it was taken from, so the request can be traced back to the messages it answers.
+public class MicroBatcher {
+
+  private static final String DELIMITER = "\n";
+
+  public interface Sender {
+
+    CompletableFuture<String> send(String text, List<String> traceLines, String sourceLang, String targetLang,
+        boolean priority, TranslationSession.Token token);
+  }
+
+  private final Sender sender;
+  private final ScheduledExecutorService timer;
+  private final int maxLines;
+  private final int maxChars;
+  private final Map<String, Batch> openBatches = new HashMap<>();
+  private final LongAdder batchesSent = new LongAdder();
+  private final LongAdder linesBatched = new LongAdder();
+  private final LongAdder splitFallbacks = new LongAdder();
+
+  private volatile long windowMillis;
+
+  public MicroBatcher(Sender sender, ScheduledExecutorService timer, long windowMillis,
+      int maxLines, int maxChars) {
+    this.sender = sender;
+    this.timer = timer;
+    this.windowMillis = windowMillis;
+    this.maxLines = maxLines;
+    this.maxChars = maxChars;
+  }
+
+  public CompletableFuture<String> submit(String text, String traceLine, String sourceLang, String targetLang,
+      TranslationSession.Token token) {
+    if (this.windowMillis <= 0L || text.contains(DELIMITER) || text.length() >= this.maxChars) {
+      return this.sender.send(text, List.of(traceLine), sourceLang, targetLang, false, token);
+    }
+
+    String groupKey = sourceLang + "|" + targetLang;
+    CompletableFuture<String> future = new CompletableFuture<>();
+    List<Batch> ready = new ArrayList<>(2);
+
+    synchronized (this.openBatches) {
+      Batch batch = this.openBatches.get(groupKey);
+      if (batch != null && batch.chars + text.length() + 1 > this.maxChars) {
+        this.openBatches.remove(groupKey);
+        ready.add(batch);
+        batch = null;
+      }
+
+      if (batch == null) {
+        Batch created = new Batch(sourceLang, targetLang, false);
+        this.openBatches.put(groupKey, created);
+        this.timer.schedule(() -> this.flush(groupKey, created), this.windowMillis,
+            TimeUnit.MILLISECONDS);
+        batch = created;
+      }
+
+      batch.add(text, traceLine, future, token);
+      if (batch.lines.size() >= this.maxLines) {
+        this.openBatches.remove(groupKey);
+        ready.add(batch);
+      }
+    }
+
+    for (Batch batch : ready) {
+      this.send(batch);
+    }
+    return future;
+  }
+
+  // Sends the lines without waiting for the window, split only where they exceed the batch limits.
+  public List<CompletableFuture<String>> submitNow(List<String> lines, String traceLine, String sourceLang,
+      String targetLang, boolean priority, TranslationSession.Token token) {
+    List<CompletableFuture<String>> futures = new ArrayList<>(lines.size());
+    Batch batch = new Batch(sourceLang, targetLang, priority);
+
+    for (String line : lines) {
+      if (!batch.lines.isEmpty()
+          && (batch.lines.size() >= this.maxLines || batch.chars + line.length() + 1 > this.maxChars)) {
+        this.send(batch);
+        batch = new Batch(sourceLang, targetLang, priority);
+      }
+
+      CompletableFuture<String> future = new CompletableFuture<>();
+      batch.add(line, traceLine, future, token);
+      futures.add(future);
+    }
+
+    if (!batch.lines.isEmpty()) {
+      this.send(batch);
+    }
+    return futures;
+  }
+
+  public void setWindowMillis(long windowMillis) {
+    this.windowMillis = windowMillis;
+  }
+
+  public long getBatchesSent() {
+    return this.batchesSent.sum();
+  }
+
+  public long getLinesBatched() {
+    return this.linesBatched.sum();
+  }
+
+  public long getSplitFallbacks() {
+    return this.splitFallbacks.sum();
+  }
+
+  private void flush(String groupKey, Batch batch) {
+    synchronized (this.openBatches) {
+      if (!this.openBatches.remove(groupKey, batch)) {
+        return;
+      }
+    }
+    this.send(batch);
+  }
+
+  private void send(Batch batch) {
+    if (batch.lines.size() == 1) {
+      this.forward(this.sender.send(batch.lines.get(0), batch.traceLines, batch.sourceLang, batch.targetLang,
+          batch.priority, batch.token), batch.futures.get(0));
+      return;
+    }
+
+    this.batchesSent.increment();
+    this.linesBatched.add(batch.lines.size());
+
+    this.sender.send(String.join(DELIMITER, batch.lines), batch.traceLines, batch.sourceLang, batch.targetLang,
+            batch.priority, batch.token)
+        .whenComplete((translated, throwable) -> {
+          if (throwable != null) {
+            for (CompletableFuture<String> future : batch.futures) {
+              future.completeExceptionally(throwable);
+            }
+            return;
+          }
+
+          String[] parts = translated.split(DELIMITER, -1);
+          if (parts.length != batch.lines.size()) {
+            this.splitFallbacks.increment();
+            for (int i = 0; i < batch.lines.size(); i++) {
+              this.forward(this.sender.send(batch.lines.get(i), List.of(batch.origins.get(i)), batch.sourceLang,
+                  batch.targetLang, batch.priority, batch.token), batch.futures.get(i));
+            }
+            return;
+          }
+
+          for (int i = 0; i < parts.length; i++) {
+            batch.futures.get(i).complete(parts[i].trim());
+          }
+        });
+  }
+
+  private void forward(CompletableFuture<String> source, CompletableFuture<String> target) {
+    source.whenComplete((value, throwable) -> {
+      if (throwable != null) {
+        target.completeExceptionally(throwable);
+      } else {
+        target.complete(value);
+      }
+    });
+  }
+
+  private static final class Batch {
+
+    private final String sourceLang;
+    private final String targetLang;
+    private final boolean priority;
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> origins = new ArrayList<>();
+    // Every distinct chat line in the batch; segments of one message share theirs.
+    private final List<String> traceLines = new ArrayList<>();
+    private final List<CompletableFuture<String>> futures = new ArrayList<>();
+    private int chars;
+    // The newest line's token: the batch is wanted for as long as its freshest line is.
+    private TranslationSession.Token token;
+
+    private Batch(String sourceLang, String targetLang, boolean priority) {
+      this.sourceLang = sourceLang;
+      this.targetLang = targetLang;
+      this.priority = priority;
+    }
+
+    private void add(String line, String origin, CompletableFuture<String> future,
+        TranslationSession.Token token) {
+      this.lines.add(line);
+      this.origins.add(origin);
+      if (!this.traceLines.contains(origin)) {
+        this.traceLines.add(origin);
+      }
+      this.futures.add(future);
+      this.chars += line.length() + 1;
+      this.token = token;
+    }
+  }
+}
\ No newline at end of file
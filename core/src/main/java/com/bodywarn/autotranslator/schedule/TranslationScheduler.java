@@ -0,0 +1,345 @@
+package com.bodywarn.autotranslator.schedule;
+
+import com.bodywarn.autotranslator.backend.BackendPool;
+import com.bodywarn.autotranslator.settings.QueuePolicy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Sits in front of the backends: work is queued in a bounded deque and only dispatched while
+// the pool has rate-limit tokens and fewer than maxConcurrent requests are in flight. Hovered
+// lines go to a separate lane that is always served first. Work whose session token has gone
+// stale is dropped before dispatch, and running work is cancelled once it goes stale, which
+// aborts the HTTP exchange underneath. Background work (cache prewarming) has a third lane that
+// only runs while both live lanes are empty, a request slot is left free and the backends have
+// tokens to spare.
+public class TranslationScheduler {
+
+  private static final int BACKGROUND_CAPACITY = 128;
+  private static final long RETRY_MILLIS = 20L;
+  private static final long BACKGROUND_RETRY_MILLIS = 250L;
+
+  private final BackendPool backendPool;
+  private final ScheduledExecutorService timer;
+
+  private final Deque<Task> priorityQueue = new ArrayDeque<>();
+  private final Deque<Task> queue = new ArrayDeque<>();
+  private final Deque<Task> backgroundQueue = new ArrayDeque<>();
+  private final Set<Task> running = new HashSet<>();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder cancelled = new LongAdder();
+
+  private volatile QueuePolicy policy;
+  private volatile int capacity;
+  private final int maxConcurrent;
+  private int inFlight;
+  private boolean retryScheduled;
+  private long retryAt;
+
+  public TranslationScheduler(BackendPool backendPool, ScheduledExecutorService timer,
+      QueuePolicy policy, int capacity, int maxConcurrent) {
+    this.backendPool = backendPool;
+    this.timer = timer;
+    this.policy = policy;
+    this.capacity = capacity;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  public CompletableFuture<String> submit(String key, boolean priority, TranslationSession.Token token,
+      Supplier<CompletableFuture<String>> work) {
+    Task task = new Task(key, token, work);
+
+    synchronized (this) {
+      if (priority) {
+        this.priorityQueue.addLast(task);
+      } else if (!this.enqueue(task)) {
+        return task.result;
+      }
+    }
+
+    this.drain();
+    return task.result;
+  }
+
+  // Background work is never counted as dropped: when the lane is full it is simply refused.
+  public CompletableFuture<String> submitBackground(String key, TranslationSession.Token token,
+      Supplier<CompletableFuture<String>> work) {
+    Task task = new Task(key, token, work);
+
+    synchronized (this) {
+      if (this.backgroundQueue.size() >= BACKGROUND_CAPACITY) {
+        task.result.completeExceptionally(new DroppedTranslationException("Background lane full: " + key));
+        return task.result;
+      }
+      this.backgroundQueue.addLast(task);
+    }
+
+    this.drain();
+    return task.result;
+  }
+
+  public synchronized int backgroundDepth() {
+    return this.backgroundQueue.size();
+  }
+
+  // Moves a queued line into the priority lane, e.g. when the player hovers it.
+  public void promote(String key) {
+    synchronized (this) {
+      Iterator<Task> iterator = this.queue.iterator();
+      while (iterator.hasNext()) {
+        Task task = iterator.next();
+        if (task.key.equals(key)) {
+          iterator.remove();
+          this.priorityQueue.addLast(task);
+          break;
+        }
+      }
+    }
+
+    this.drain();
+  }
+
+  public void setPolicy(QueuePolicy policy) {
+    this.policy = policy;
+  }
+
+  public void setCapacity(int capacity) {
+    this.capacity = capacity;
+    synchronized (this) {
+      while (this.queue.size() > capacity) {
+        this.drop(this.queue.pollFirst());
+      }
+    }
+  }
+
+  public synchronized int queueDepth() {
+    return this.queue.size() + this.priorityQueue.size();
+  }
+
+  public synchronized int inFlight() {
+    return this.inFlight;
+  }
+
+  public long droppedCount() {
+    return this.dropped.sum();
+  }
+
+  public long cancelledCount() {
+    return this.cancelled.sum();
+  }
+
+  // Drops queued work and cancels running work whose token has gone stale.
+  public void cancelStale() {
+    List<Task> stale = new ArrayList<>();
+    synchronized (this) {
+      removeStale(this.queue, stale);
+      removeStale(this.priorityQueue, stale);
+      removeStale(this.backgroundQueue, stale);
+      for (Task task : this.running) {
+        if (task.token.isStale()) {
+          stale.add(task);
+        }
+      }
+    }
+
+    for (Task task : stale) {
+      this.cancel(task);
+    }
+  }
+
+  public void clear() {
+    List<Task> cancelled;
+    synchronized (this) {
+      while (!this.queue.isEmpty()) {
+        this.drop(this.queue.pollFirst());
+      }
+      while (!this.priorityQueue.isEmpty()) {
+        this.drop(this.priorityQueue.pollFirst());
+      }
+      // Background work and running requests are cancelled rather than counted as dropped.
+      cancelled = new ArrayList<>(this.backgroundQueue);
+      this.backgroundQueue.clear();
+      cancelled.addAll(this.running);
+    }
+
+    for (Task task : cancelled) {
+      this.cancel(task);
+    }
+  }
+
+  private boolean enqueue(Task task) {
+    if (this.queue.size() >= this.capacity) {
+      if (this.policy == QueuePolicy.DROP_NEWEST) {
+        this.drop(task);
+        return false;
+      }
+      this.drop(this.queue.pollFirst());
+    }
+
+    this.queue.addLast(task);
+    return true;
+  }
+
+  private void drain() {
+    while (true) {
+      Task task;
+      boolean stale;
+      synchronized (this) {
+        boolean live = this.queueDepth() > 0;
+        if (this.inFlight >= this.maxConcurrent || !live && (this.backgroundQueue.isEmpty()
+            || this.inFlight >= this.maxConcurrent - 1)) {
+          return;
+        }
+
+        if (live ? !this.backendPool.hasCapacity() : !this.backendPool.hasSpareCapacity()) {
+          this.scheduleRetry(live ? RETRY_MILLIS : BACKGROUND_RETRY_MILLIS);
+          return;
+        }
+
+        task = live ? this.poll() : this.backgroundQueue.pollFirst();
+        stale = task.token.isStale();
+        if (!stale) {
+          this.inFlight++;
+          this.running.add(task);
+        }
+      }
+
+      if (stale) {
+        this.cancel(task);
+      } else {
+        this.run(task);
+      }
+    }
+  }
+
+  private Task poll() {
+    if (!this.priorityQueue.isEmpty()) {
+      return this.priorityQueue.pollLast();
+    }
+    return this.policy == QueuePolicy.NEWEST_FIRST ? this.queue.pollLast() : this.queue.pollFirst();
+  }
+
+  private void run(Task task) {
+    CompletableFuture<String> work;
+    try {
+      work = task.work.get();
+    } catch (RuntimeException e) {
+      work = CompletableFuture.failedFuture(e);
+    }
+
+    synchronized (this) {
+      task.running = work;
+    }
+    if (task.result.isDone()) {
+      work.cancel(true);
+    }
+
+    long untilDeadline = task.token.millisUntilDeadline();
+    if (untilDeadline != Long.MAX_VALUE && !work.isDone()) {
+      this.timer.schedule(() -> {
+        if (task.token.isStale()) {
+          this.cancel(task);
+        }
+      }, untilDeadline + 1L, TimeUnit.MILLISECONDS);
+    }
+
+    work.whenComplete((result, throwable) -> {
+      synchronized (this) {
+        this.inFlight--;
+        this.running.remove(task);
+      }
+
+      if (throwable != null) {
+        task.result.completeExceptionally(throwable);
+      } else {
+        task.result.complete(result);
+      }
+      this.drain();
+    });
+  }
+
+  // A retry that is already due sooner is kept; a live retry may overtake a background one.
+  private void scheduleRetry(long minDelayMillis) {
+    long delay = Math.max(minDelayMillis, this.backendPool.millisUntilCapacity());
+    long retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+    if (this.retryScheduled && this.retryAt - retryAt <= 0L) {
+      return;
+    }
+
+    this.retryScheduled = true;
+    this.retryAt = retryAt;
+    this.timer.schedule(() -> {
+      synchronized (this) {
+        if (this.retryAt == retryAt) {
+          this.retryScheduled = false;
+        }
+      }
+      this.drain();
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+
+  private static void removeStale(Deque<Task> queue, List<Task> stale) {
+    Iterator<Task> iterator = queue.iterator();
+    while (iterator.hasNext()) {
+      Task task = iterator.next();
+      if (task.token.isStale()) {
+        iterator.remove();
+        stale.add(task);
+      }
+    }
+  }
+
+  // Fails the caller's future first, so the cancelled work below cannot complete it.
+  private void cancel(Task task) {
+    String reason = task.token.staleReason();
+    if (!task.result.completeExceptionally(new DroppedTranslationException(
+        "Translation cancelled (" + (reason == null ? "shutdown" : reason) + "): " + task.key))) {
+      return;
+    }
+
+    this.cancelled.increment();
+    CompletableFuture<String> running;
+    synchronized (this) {
+      running = task.running;
+    }
+    if (running != null) {
+      running.cancel(true);
+    }
+  }
+
+  private void drop(Task task) {
+    if (task == null) {
+      return;
+    }
+
+    this.dropped.increment();
+    task.result.completeExceptionally(
+        new DroppedTranslationException("Translation queue full, dropped: " + task.key));
+  }
+
+  private static final class Task {
+
+    private final String key;
+    private final TranslationSession.Token token;
+    private final Supplier<CompletableFuture<String>> work;
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private CompletableFuture<String> running;
+
+    private Task(String key, TranslationSession.Token token, Supplier<CompletableFuture<String>> work) {
+      this.key = key;
+      this.token = token;
+      this.work = work;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.bodywarn.autotranslator.schedule;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ties requests to the chat session they were made in. Server hops, target language changes and
+// shutdown start a new generation, which makes every older request stale. A request also goes
+// stale past its deadline or once its line has scrolled out of the chat history.
+public class TranslationSession {
+
+  private static final int CHAT_HISTORY_LINES = 100;
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+  private final AtomicInteger generation = new AtomicInteger();
+  private final AtomicLong linesReceived = new AtomicLong();
+
+  // A timeout of zero or less means the request only goes stale with its session or line.
+  public Token token(long timeoutMillis) {
+    long deadline = timeoutMillis > 0L
+        ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : NO_DEADLINE;
+    return new Token(this, this.generation.get(), this.linesReceived.get(), deadline);
+  }
+
+  public void lineReceived() {
+    this.linesReceived.incrementAndGet();
+  }
+
+  public void invalidate() {
+    this.generation.incrementAndGet();
+  }
+
+  public static final class Token {
+
+    private final TranslationSession session;
+    private final int generation;
+    private final long line;
+    private final long deadlineNanos;
+
+    private Token(TranslationSession session, int generation, long line, long deadlineNanos) {
+      this.session = session;
+      this.generation = generation;
+      this.line = line;
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    public boolean isStale() {
+      return staleReason() != null;
+    }
+
+    // Why the request is no longer wanted, or null while it still is.
+    public String staleReason() {
+      if (session.generation.get() != generation) {
+        return "session ended";
+      }
+      if (session.linesReceived.get() - line > CHAT_HISTORY_LINES) {
+        return "scrolled out of chat";
+      }
+      if (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos > 0L) {
+        return "deadline passed";
+      }
+      return null;
+    }
+
+    public long millisUntilDeadline() {
+      if (deadlineNanos == NO_DEADLINE) {
+        return Long.MAX_VALUE;
+      }
+      return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.bodywarn.autotranslator.settings;
+
+public enum QueuePolicy {
+  NEWEST_FIRST("Newest first, drop oldest"),
+  DROP_OLDEST("In order, drop oldest"),
+  DROP_NEWEST("In order, drop newest");
+
+  private final String displayName;
+
+  QueuePolicy(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+
+  @Override
+  public String toString() {
+    return displayName;
+  }
+}
\ No newline at end of file
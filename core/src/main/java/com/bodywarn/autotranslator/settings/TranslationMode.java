@@ -0,0 +1,21 @@
+package com.bodywarn.autotranslator.settings;
+
+public enum TranslationMode {
+  EAGER("Translate every message"),
+  ON_HOVER("Translate on hover");
+
+  private final String displayName;
+
+  TranslationMode(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+
+  @Override
+  public String toString() {
+    return displayName;
+  }
+}
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.bodywarn.autotranslator.settings;
 
 import net.labymod.api.addon.AddonConfig;
+import net.labymod.api.client.gui.screen.widget.widgets.input.SliderWidget.SliderSetting;
 import net.labymod.api.client.gui.screen.widget.widgets.input.SwitchWidget.SwitchSetting;
+import net.labymod.api.client.gui.screen.widget.widgets.input.TextFieldWidget.TextFieldSetting;
 import net.labymod.api.client.gui.screen.widget.widgets.input.dropdown.DropdownWidget.DropdownSetting;
 import net.labymod.api.configuration.loader.annotation.ConfigName;
 import net.labymod.api.configuration.loader.property.ConfigProperty;
@@ -15,6 +17,75 @@ public class TranslatorAddon extends AddonConfig {
   @DropdownSetting
   private final ConfigProperty<Language> targetLanguage = new ConfigProperty<>(Language.EN);
 
+  @DropdownSetting
+  private final ConfigProperty<TranslationMode> translationMode = new ConfigProperty<>(TranslationMode.EAGER);
+
+  @SliderSetting(min = 1, max = 64)
+  private final ConfigProperty<Integer> cacheSizeMb = new ConfigProperty<>(4);
+
+  @SliderSetting(min = 0, max = 240, steps = 5)
+  private final ConfigProperty<Integer> cacheTtlMinutes = new ConfigProperty<>(0);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> persistentCache = new ConfigProperty<>(true);
+
+  @SliderSetting(min = 1, max = 64)
+  private final ConfigProperty<Integer> diskCacheSizeMb = new ConfigProperty<>(8);
+
+  @TextFieldSetting
+  private final ConfigProperty<String> sharedCacheUrl = new ConfigProperty<>("");
+
+  @TextFieldSetting
+  private final ConfigProperty<String> serverPrefixFormats = new ConfigProperty<>("");
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> hedgeRequests = new ConfigProperty<>(true);
+
+  @SliderSetting(min = 0, max = 3000, steps = 50)
+  private final ConfigProperty<Integer> hedgeDelayMs = new ConfigProperty<>(0);
+
+  @SliderSetting(min = 1, max = 20)
+  private final ConfigProperty<Integer> backendRateLimit = new ConfigProperty<>(3);
+
+  @SliderSetting(min = 10, max = 500, steps = 10)
+  private final ConfigProperty<Integer> queueCapacity = new ConfigProperty<>(50);
+
+  @DropdownSetting
+  private final ConfigProperty<QueuePolicy> queuePolicy = new ConfigProperty<>(QueuePolicy.NEWEST_FIRST);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> batchRequests = new ConfigProperty<>(true);
+
+  @SliderSetting(min = 0, max = 200, steps = 10)
+  private final ConfigProperty<Integer> batchWindowMs = new ConfigProperty<>(30);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> prewarmCache = new ConfigProperty<>(true);
+
+  @SliderSetting(min = 0, max = 60, steps = 5)
+  private final ConfigProperty<Integer> requestTimeoutSeconds = new ConfigProperty<>(15);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> senderProfiles = new ConfigProperty<>(true);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> phraseDictionary = new ConfigProperty<>(true);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> maskTokens = new ConfigProperty<>(true);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> segmentCache = new ConfigProperty<>(false);
+
+  @SliderSetting(min = 0, max = 60, steps = 5)
+  private final ConfigProperty<Integer> metricsLogMinutes = new ConfigProperty<>(0);
+
+  @SwitchSetting
+  private final ConfigProperty<Boolean> debugTrace = new ConfigProperty<>(false);
+
+  @SliderSetting(min = 1, max = 100)
+  private final ConfigProperty<Integer> traceSamplePercent = new ConfigProperty<>(100);
+
   @Override
   public ConfigProperty<Boolean> enabled() {
     return this.enabled;
@@ -23,4 +94,96 @@ public class TranslatorAddon extends AddonConfig {
   public ConfigProperty<Language> targetLanguage() {
     return this.targetLanguage;
   }
+
+  public ConfigProperty<TranslationMode> translationMode() {
+    return this.translationMode;
+  }
+
+  public ConfigProperty<Integer> cacheSizeMb() {
+    return this.cacheSizeMb;
+  }
+
+  public ConfigProperty<Integer> cacheTtlMinutes() {
+    return this.cacheTtlMinutes;
+  }
+
+  public ConfigProperty<Boolean> persistentCache() {
+    return this.persistentCache;
+  }
+
+  public ConfigProperty<Integer> diskCacheSizeMb() {
+    return this.diskCacheSizeMb;
+  }
+
+  public ConfigProperty<String> sharedCacheUrl() {
+    return this.sharedCacheUrl;
+  }
+
+  public ConfigProperty<String> serverPrefixFormats() {
+    return this.serverPrefixFormats;
+  }
+
+  public ConfigProperty<Boolean> hedgeRequests() {
+    return this.hedgeRequests;
+  }
+
+  public ConfigProperty<Integer> hedgeDelayMs() {
+    return this.hedgeDelayMs;
+  }
+
+  public ConfigProperty<Integer> backendRateLimit() {
+    return this.backendRateLimit;
+  }
+
+  public ConfigProperty<Integer> queueCapacity() {
+    return this.queueCapacity;
+  }
+
+  public ConfigProperty<QueuePolicy> queuePolicy() {
+    return this.queuePolicy;
+  }
+
+  public ConfigProperty<Boolean> batchRequests() {
+    return this.batchRequests;
+  }
+
+  public ConfigProperty<Integer> batchWindowMs() {
+    return this.batchWindowMs;
+  }
+
+  public ConfigProperty<Boolean> prewarmCache() {
+    return this.prewarmCache;
+  }
+
+  public ConfigProperty<Integer> requestTimeoutSeconds() {
+    return this.requestTimeoutSeconds;
+  }
+
+  public ConfigProperty<Boolean> senderProfiles() {
+    return this.senderProfiles;
+  }
+
+  public ConfigProperty<Boolean> phraseDictionary() {
+    return this.phraseDictionary;
+  }
+
+  public ConfigProperty<Boolean> maskTokens() {
+    return this.maskTokens;
+  }
+
+  public ConfigProperty<Boolean> segmentCache() {
+    return this.segmentCache;
+  }
+
+  public ConfigProperty<Integer> metricsLogMinutes() {
+    return this.metricsLogMinutes;
+  }
+
+  public ConfigProperty<Boolean> debugTrace() {
+    return this.debugTrace;
+  }
+
+  public ConfigProperty<Integer> traceSamplePercent() {
+    return this.traceSamplePercent;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.bodywarn.autotranslator.trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Fixed-size ring of per-message events, written to a file only on request. Off by default;
+// while off, or for a message outside the sample, recording is a volatile read and a return.
+// Sampling hashes the message text, so every stage of a sampled message is kept.
+public class TraceRecorder {
+
+  public enum Stage {
+    RECEIVED,
+    SKIPPED,
+    COALESCED,
+    CACHE_HIT,
+    PHRASE_HIT,
+    SHARED_HIT,
+    DETECTED,
+    QUEUED,
+    BACKEND_TRIED,
+    BACKEND_HEDGED,
+    BACKEND_OK,
+    BACKEND_FAILED,
+    RESULT,
+    DROPPED,
+    FAILED,
+    HOVER_SET
+  }
+
+  private static final int CAPACITY = 4096;
+  private static final int MAX_TEXT_CHARS = 80;
+  private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+  private static final DateTimeFormatter FILE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private final AtomicReferenceArray<Event> events = new AtomicReferenceArray<>(CAPACITY);
+  private final AtomicLong sequence = new AtomicLong();
+
+  private volatile boolean enabled;
+  private volatile int samplePercent = 100;
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public void setSamplePercent(int samplePercent) {
+    this.samplePercent = Math.max(0, Math.min(100, samplePercent));
+  }
+
+  public boolean isSampled(String text) {
+    if (!this.enabled || text == null) {
+      return false;
+    }
+
+    int hash = text.hashCode() * 0x9E3779B9;
+    return Math.floorMod(hash ^ (hash >>> 16), 100) < this.samplePercent;
+  }
+
+  public void record(Stage stage, String text) {
+    this.record(stage, text, null);
+  }
+
+  public void record(Stage stage, String text, String detail) {
+    if (!this.isSampled(text)) {
+      return;
+    }
+
+    long id = this.sequence.getAndIncrement();
+    this.events.set((int) (id % CAPACITY), new Event(id, System.currentTimeMillis(),
+        Thread.currentThread().getName(), stage, truncate(text), truncate(detail)));
+  }
+
+  public void clear() {
+    for (int i = 0; i < CAPACITY; i++) {
+      this.events.set(i, null);
+    }
+  }
+
+  // Writes the buffered events, oldest first, to a new file in the given directory.
+  public CompletableFuture<Path> dumpAsync(Path directory) {
+    List<Event> snapshot = new ArrayList<>(CAPACITY);
+    for (int i = 0; i < CAPACITY; i++) {
+      Event event = this.events.get(i);
+      if (event != null) {
+        snapshot.add(event);
+      }
+    }
+
+    return CompletableFuture.supplyAsync(() -> {
+      snapshot.sort(Comparator.comparingLong(event -> event.id));
+      Path file = directory.resolve("trace-" + LocalDateTime.now().format(FILE_FORMAT) + ".log");
+
+      try {
+        Files.createDirectories(directory);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+          for (Event event : snapshot) {
+            writer.write(event.toString());
+            writer.newLine();
+          }
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Could not write trace: " + e.getMessage(), e);
+      }
+      return file;
+    });
+  }
+
+  private static String truncate(String value) {
+    if (value == null || value.length() <= MAX_TEXT_CHARS) {
+      return value;
+    }
+    return value.substring(0, MAX_TEXT_CHARS) + "…";
+  }
+
+  private static final class Event {
+
+    private final long id;
+    private final long timeMillis;
+    private final String thread;
+    private final Stage stage;
+    private final String text;
+    private final String detail;
+
+    private Event(long id, long timeMillis, String thread, Stage stage, String text, String detail) {
+      this.id = id;
+      this.timeMillis = timeMillis;
+      this.thread = thread;
+      this.stage = stage;
+      this.text = text;
+      this.detail = detail;
+    }
+
+    @Override
+    public String toString() {
+      String time = TIME_FORMAT.format(Instant.ofEpochMilli(this.timeMillis).atZone(ZoneId.systemDefault()));
+      return String.format("%s [%s] %-14s '%s'%s", time, this.thread, this.stage, this.text,
+          this.detail == null ? "" : " " + this.detail);
+    }
+  }
+}
\ No newline at end of file
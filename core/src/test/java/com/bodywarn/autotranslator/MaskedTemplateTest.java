@@ -0,0 +1,85 @@
+package com.bodywarn.autotranslator;
+
+import com.bodywarn.autotranslator.backend.BackendEndpoints;
+import com.bodywarn.autotranslator.settings.Language;
+import com.bodywarn.autotranslator.settings.TranslatorAddon;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A backend that drops the second placeholder of every template it is sent.
+class MaskedTemplateTest {
+
+  @TempDir
+  Path directory;
+
+  private final List<String> requested = new CopyOnWriteArrayList<>();
+  private HttpServer backend;
+  private TranslationService service;
+
+  @BeforeEach
+  void start() throws IOException {
+    this.backend = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.backend.createContext("/", this::translate);
+    this.backend.start();
+
+    TranslatorAddon config = new TranslatorAddon();
+    config.persistentCache().set(false);
+    config.batchRequests().set(false);
+    config.hedgeRequests().set(false);
+    config.maskTokens().set(true);
+    String lingva = "http://127.0.0.1:" + this.backend.getAddress().getPort() + "/api/v1";
+    this.service = new TranslationService(config, this.directory,
+        new BackendEndpoints(List.of(lingva), "http://127.0.0.1:9/"));
+  }
+
+  @AfterEach
+  void stop() {
+    this.service.shutdown();
+    this.backend.stop(0);
+  }
+
+  @Test
+  void damagedTemplateIsNeitherCachedNorRetried() throws Exception {
+    String first = "Steve_1 has won 500 coins in the arena";
+    String second = "Alex_22 has won 20 coins in the arena";
+
+    assertEquals("[de] " + first, this.service.translateAsync(first, Language.DE).get(5L, TimeUnit.SECONDS));
+    assertEquals(List.of("{0} has won {1} coins in the arena", first), this.requested);
+
+    // The template is not cached and not asked for again; the line goes out as it is.
+    assertEquals("[de] " + second, this.service.translateAsync(second, Language.DE).get(5L, TimeUnit.SECONDS));
+    assertEquals(List.of("{0} has won {1} coins in the arena", first, second), this.requested);
+    assertEquals(2, this.service.getCacheSize());
+  }
+
+  private void translate(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getRawPath();
+    String text = URLDecoder.decode(path.substring(path.lastIndexOf('/') + 1), StandardCharsets.UTF_8);
+    this.requested.add(text);
+
+    String translation = "[de] " + text.replace(" {1}", "");
+    byte[] body = ("{\"translation\":\"" + translation + "\"}").getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(body);
+    }
+  }
+}
\ No newline at end of file
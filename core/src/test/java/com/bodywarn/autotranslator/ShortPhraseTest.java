@@ -0,0 +1,66 @@
+package com.bodywarn.autotranslator;
+
+import com.bodywarn.autotranslator.backend.BackendEndpoints;
+import com.bodywarn.autotranslator.settings.Language;
+import com.bodywarn.autotranslator.settings.TranslatorAddon;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Lines under the length limit reach the phrase table through the chat filter; no backend is
+// reachable, so every answer here comes from the table.
+class ShortPhraseTest {
+
+  @TempDir
+  Path directory;
+
+  private TranslationService service;
+
+  @BeforeEach
+  void startService() throws InterruptedException {
+    TranslatorAddon config = new TranslatorAddon();
+    config.persistentCache().set(false);
+    this.service = new TranslationService(config, this.directory,
+        new BackendEndpoints(List.of("http://127.0.0.1:9/"), "http://127.0.0.1:9/"));
+
+    // The table loads on the first lookup.
+    long deadline = System.currentTimeMillis() + 2000L;
+    while (!this.service.isKnownPhrase("hi", Language.DE) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+  }
+
+  @AfterEach
+  void stopService() {
+    this.service.shutdown();
+  }
+
+  @Test
+  void shortPhrasesPassTheFilter() {
+    assertTrue(ChatHoverListener.shouldTranslate("gg", this.service, Language.DE));
+    assertTrue(ChatHoverListener.shouldTranslate("hi", this.service, Language.ES));
+    assertFalse(ChatHoverListener.shouldTranslate("zq", this.service, Language.DE));
+    assertFalse(ChatHoverListener.shouldTranslate("/gg", this.service, Language.DE));
+    assertTrue(ChatHoverListener.shouldTranslate("hello there", this.service, Language.DE));
+  }
+
+  @Test
+  void shortPhrasesAreAnsweredFromTheTable() throws Exception {
+    assertTrue(ChatHoverListener.shouldTranslate("hi", this.service, Language.ES));
+    assertEquals("hola", this.service.translateAsync("hi", Language.ES).get(2L, TimeUnit.SECONDS));
+
+    // "gg" is written the same way in every language, so it comes back unchanged.
+    assertTrue(ChatHoverListener.shouldTranslate("gg", this.service, Language.DE));
+    assertEquals("gg", this.service.translateAsync("gg", Language.DE).get(2L, TimeUnit.SECONDS));
+    assertEquals(2L, this.service.getMetrics().getPhraseHits());
+  }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.bodywarn.autotranslator.trace.TraceRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedTranslationTest {
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  @TempDir
+  Path directory;
+
+  @AfterEach
+  void stopScheduler() {
+    this.scheduler.shutdownNow();
+  }
+
+  @Test
+  void tracesTheOriginatingLinesOfABatch() throws IOException {
+    TraceRecorder trace = new TraceRecorder();
+    trace.setEnabled(true);
+
+    String result = HedgedTranslation.start(List.of(backend("lingva", "Hallo\nWelt")), "hello\nworld", "en", "de",
+        -1L, this.scheduler, new LatencyTracker(16), trace, List.of("<Steve> hello", "<Alex> world")).join();
+    assertEquals("Hallo\nWelt", result);
+
+    List<String> lines = this.dump(trace);
+    assertTrue(contains(lines, "BACKEND_TRIED", "'<Steve> hello' lingva"));
+    assertTrue(contains(lines, "BACKEND_OK", "'<Steve> hello' lingva"));
+    assertTrue(contains(lines, "BACKEND_TRIED", "'<Alex> world' lingva"));
+    assertTrue(contains(lines, "BACKEND_OK", "'<Alex> world' lingva"));
+    assertFalse(lines.stream().anyMatch(line -> line.contains("'hello")));
+  }
+
+  @Test
+  void tracesTheLineBehindATemplate() throws IOException {
+    TraceRecorder trace = new TraceRecorder();
+    trace.setEnabled(true);
+
+    HedgedTranslation.start(List.of(failing("lingva"), backend("google", "{0} hat gewonnen")), "{0} has won",
+        "en", "de", -1L, this.scheduler, new LatencyTracker(16), trace, List.of("Player123 has won")).join();
+
+    List<String> lines = this.dump(trace);
+    assertTrue(contains(lines, "BACKEND_FAILED", "'Player123 has won' lingva: down"));
+    assertTrue(contains(lines, "BACKEND_OK", "'Player123 has won' google"));
+    assertFalse(lines.stream().anyMatch(line -> line.contains("{0}")));
+  }
+
+  private List<String> dump(TraceRecorder trace) throws IOException {
+    return Files.readAllLines(trace.dumpAsync(this.directory).join(), StandardCharsets.UTF_8);
+  }
+
+  private static boolean contains(List<String> lines, String stage, String rest) {
+    return lines.stream().anyMatch(line -> line.contains(stage) && line.endsWith(rest));
+  }
+
+  private static TranslationBackend backend(String name, String translation) {
+    return new TranslationBackend() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+        return CompletableFuture.completedFuture(translation);
+      }
+    };
+  }
+
+  private static TranslationBackend failing(String name) {
+    return new TranslationBackend() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public CompletableFuture<String> translate(String text, String sourceLang, String targetLang) {
+        return CompletableFuture.failedFuture(new IOException("down"));
+      }
+    };
+  }
+}
\ No newline at end of file
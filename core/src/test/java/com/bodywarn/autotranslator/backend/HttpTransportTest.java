@@ -0,0 +1,80 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpTransportTest {
+
+  private static final String BODY = "{\"translation\":\"Hallo Welt\"}";
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private HttpServer server;
+  private HttpTransport transport;
+
+  @BeforeEach
+  void start() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.createContext("/zlib", exchange -> respond(exchange, deflate(false)));
+    this.server.createContext("/raw", exchange -> respond(exchange, deflate(true)));
+    this.server.start();
+    this.transport = new HttpTransport(this.executor, 2);
+  }
+
+  @AfterEach
+  void stop() {
+    this.transport.close();
+    this.server.stop(0);
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  void inflatesZlibWrappedDeflate() throws Exception {
+    assertEquals("Hallo Welt", this.transport.get(this.url("/zlib"), LingvaBackend::parseResponse)
+        .get(5L, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void inflatesRawDeflate() throws Exception {
+    assertEquals("Hallo Welt", this.transport.get(this.url("/raw"), LingvaBackend::parseResponse)
+        .get(5L, TimeUnit.SECONDS));
+  }
+
+  private String url(String path) {
+    return "http://127.0.0.1:" + this.server.getAddress().getPort() + path;
+  }
+
+  private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Encoding", "deflate");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static byte[] deflate(boolean raw) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+    try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+      out.write(BODY.getBytes(StandardCharsets.UTF_8));
+    }
+    deflater.end();
+    return bytes.toByteArray();
+  }
+}
\ No newline at end of file
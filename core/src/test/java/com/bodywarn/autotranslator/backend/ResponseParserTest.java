@@ -0,0 +1,47 @@
+package com.bodywarn.autotranslator.backend;
+
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResponseParserTest {
+
+  @Test
+  void lingvaReadsOnlyTheTranslation() throws IOException {
+    String body = "{\"info\":{\"pronunciation\":{},\"definitions\":[{\"a\":[1,2]}]},"
+        + "\"translation\":\" Hallo Welt \",\"extra\":null}";
+    assertEquals("Hallo Welt", LingvaBackend.parseResponse(reader(body)));
+  }
+
+  @Test
+  void lingvaRejectsMissingTranslation() {
+    assertThrows(IOException.class, () -> LingvaBackend.parseResponse(reader("{\"error\":\"nope\"}")));
+  }
+
+  @Test
+  void googleJoinsSegments() throws IOException {
+    String body = "[[[\"Hallo \",\"Hello \",null,null,10],[\"Welt\",\"world\",null,null,10]],"
+        + "null,\"en\",null,null,null,1.0,[]]";
+    assertEquals("Hallo Welt", GoogleBackend.parseResponse(reader(body)));
+  }
+
+  @Test
+  void googleKeepsLineBreaksBetweenBatchedLines() throws IOException {
+    String body = "[[[\"[de] a\\n\",\"a\\n\",null,null,10],[\"[de] b\",\"b\",null,null,10]],null,\"en\"]";
+    assertEquals("[de] a\n[de] b", GoogleBackend.parseResponse(reader(body)));
+  }
+
+  @Test
+  void googleRejectsEmptyResponses() {
+    assertThrows(IOException.class, () -> GoogleBackend.parseResponse(reader("[null,null,\"en\"]")));
+  }
+
+  private static JsonReader reader(String body) {
+    return new JsonReader(new StringReader(body));
+  }
+}
\ No newline at end of file
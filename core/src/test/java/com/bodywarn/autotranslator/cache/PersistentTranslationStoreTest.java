@@ -0,0 +1,101 @@
+package com.bodywarn.autotranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentTranslationStoreTest {
+
+  private static final long MAX_BYTES = 1 << 20;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void reloadsWhatWasAppended() {
+    Path file = this.directory.resolve("translations.bin");
+    long before = System.currentTimeMillis();
+    this.write(file, "hej med dig", "good morning", "i'm back");
+
+    List<PersistentTranslationStore.Record> records = this.load(file, 0L);
+    assertEquals(List.of("hej med dig", "good morning", "i'm back"), texts(records));
+    assertEquals("en", records.get(0).getSourceLang());
+    assertEquals("de", records.get(0).getTargetLang());
+    assertEquals("HEJ MED DIG", records.get(0).getTranslation());
+    assertTrue(records.get(0).getWrittenAt() >= before);
+  }
+
+  @Test
+  void skipsADamagedRecordAndKeepsTheRest() throws IOException {
+    Path file = this.directory.resolve("translations.bin");
+    this.write(file, "hej med dig", "good morning", "i'm back");
+
+    // Overwrite the second record's payload; its length prefix stays intact.
+    byte[] bytes = Files.readAllBytes(file);
+    int second = 4 + Integer.BYTES + ByteBuffer.wrap(bytes, 4, Integer.BYTES).getInt();
+    int length = ByteBuffer.wrap(bytes, second, Integer.BYTES).getInt();
+    Arrays.fill(bytes, second + Integer.BYTES, second + Integer.BYTES + length, (byte) 0xFF);
+    Files.write(file, bytes);
+
+    assertEquals(List.of("hej med dig", "i'm back"), texts(this.load(file, 0L)));
+  }
+
+  @Test
+  void truncatesAtABrokenLength() throws IOException {
+    Path file = this.directory.resolve("translations.bin");
+    this.write(file, "hej med dig", "good morning");
+    long validBytes = Files.size(file);
+    Files.write(file, new byte[]{0x7F, 0x00, 0x00, 0x01, 1, 2, 3}, StandardOpenOption.APPEND);
+
+    assertEquals(List.of("hej med dig", "good morning"), texts(this.load(file, 0L)));
+    assertEquals(validBytes, Files.size(file));
+
+    this.write(file, "i'm back");
+    assertEquals(List.of("hej med dig", "good morning", "i'm back"), texts(this.load(file, 0L)));
+  }
+
+  @Test
+  void appliesTheTtlOnLoad() throws InterruptedException {
+    Path file = this.directory.resolve("translations.bin");
+    this.write(file, "hej med dig");
+    Thread.sleep(20L);
+
+    assertEquals(List.of(), texts(this.load(file, 10L)));
+    assertEquals(List.of("hej med dig"), texts(this.load(file, 60_000L)));
+  }
+
+  private void write(Path file, String... texts) {
+    PersistentTranslationStore store = new PersistentTranslationStore(file, MAX_BYTES, 0L);
+    for (String text : texts) {
+      store.append(text, "en", "de", text.toUpperCase());
+    }
+    store.close();
+  }
+
+  private List<PersistentTranslationStore.Record> load(Path file, long ttlMillis) {
+    List<PersistentTranslationStore.Record> records = new ArrayList<>();
+    PersistentTranslationStore store = new PersistentTranslationStore(file, MAX_BYTES, ttlMillis);
+    store.loadAsync(records::add);
+    store.close();
+    return records;
+  }
+
+  private static List<String> texts(List<PersistentTranslationStore.Record> records) {
+    List<String> texts = new ArrayList<>();
+    for (PersistentTranslationStore.Record record : records) {
+      texts.add(record.getText());
+    }
+    return texts;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.bodywarn.autotranslator.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ServerLineHistoryTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void savesOnlyRecurringLines() throws IOException {
+    ServerLineHistory history = new ServerLineHistory(this.directory);
+    history.switchServer("Play.Example.net", 10, lines -> { });
+    for (int i = 0; i < 3; i++) {
+      history.observe("Welcome to the server!");
+    }
+    history.observe("my password is hunter2");
+    history.close();
+
+    assertEquals(List.of("3\tWelcome to the server!"),
+        Files.readAllLines(this.directory.resolve("play.example.net.txt"), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void skipsTheFileWhenNothingRecurs() {
+    ServerLineHistory history = new ServerLineHistory(this.directory);
+    history.switchServer("play.example.net", 10, lines -> { });
+    history.observe("hello");
+    history.switchServer(null, 0, lines -> { });
+    history.close();
+
+    assertFalse(Files.exists(this.directory.resolve("play.example.net.txt")));
+  }
+
+  @Test
+  void loadsOnItsOwnThread() throws Exception {
+    ServerLineHistory first = new ServerLineHistory(this.directory);
+    first.switchServer("play.example.net", 10, lines -> { });
+    first.observe("Vote for us!");
+    first.observe("Vote for us!");
+    first.close();
+
+    CompletableFuture<String> thread = new CompletableFuture<>();
+    CompletableFuture<List<String>> loaded = new CompletableFuture<>();
+    ServerLineHistory second = new ServerLineHistory(this.directory);
+    second.switchServer("play.example.net", 10, lines -> {
+      thread.complete(Thread.currentThread().getName());
+      loaded.complete(lines);
+    });
+
+    assertEquals(List.of("Vote for us!"), loaded.get(2L, TimeUnit.SECONDS));
+    assertEquals("AutoTranslator-History", thread.get(2L, TimeUnit.SECONDS));
+    second.close();
+  }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.bodywarn.autotranslator.cache;
+
+import com.bodywarn.autotranslator.cacheserver.SharedCacheServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedCacheClientTest {
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private SharedCacheServer server;
+  private SharedCacheClient client;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    this.server = SharedCacheServer.local(100);
+    this.server.start();
+    this.client = new SharedCacheClient(this.scheduler);
+    this.client.setEndpoint(this.server.baseUrl());
+  }
+
+  @AfterEach
+  void stopServer() {
+    this.server.stop();
+    this.scheduler.shutdownNow();
+  }
+
+  @Test
+  void missesThenHitsAfterPut() throws Exception {
+    assertNull(this.client.get("good luck everyone", "en", "de").get(2L, TimeUnit.SECONDS));
+
+    this.client.put("good luck everyone", "en", "de", "Viel Glück allen");
+    this.client.flushPuts();
+    long deadline = System.currentTimeMillis() + 2000L;
+    while (this.server.getStores() < 1L && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+
+    assertEquals("Viel Glück allen", this.client.get("good luck everyone", "en", "de").get(2L, TimeUnit.SECONDS));
+    assertNull(this.client.get("good luck everyone", "en", "fr").get(2L, TimeUnit.SECONDS));
+    assertEquals(3L, this.server.getLookups());
+    assertEquals(1L, this.server.getHits());
+  }
+
+  @Test
+  void rejectsMalformedBodies() throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(this.server.baseUrl() + "get"))
+        .POST(HttpRequest.BodyPublishers.ofByteArray(new byte[]{9, 0, 1, 2}))
+        .build();
+    HttpResponse<Void> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+
+    assertEquals(400, response.statusCode());
+    assertEquals(1L, this.server.getRejected());
+  }
+
+  @Test
+  void missesSilentlyWhenTheServerIsDown() throws Exception {
+    this.server.stop();
+
+    assertNull(this.client.get("good luck everyone", "en", "de").get(2L, TimeUnit.SECONDS));
+    assertFalse(this.client.isAvailable());
+    assertNull(this.client.get("good luck everyone", "en", "de").get(2L, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void blankAddressTurnsTheTierOff() throws Exception {
+    assertTrue(this.client.isAvailable());
+    this.client.setEndpoint(" ");
+
+    assertFalse(this.client.isAvailable());
+    assertNull(this.client.get("good luck everyone", "en", "de").get(2L, TimeUnit.SECONDS));
+  }
+}
\ No newline at end of file
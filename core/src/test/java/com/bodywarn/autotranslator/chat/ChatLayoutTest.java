@@ -0,0 +1,60 @@
+package com.bodywarn.autotranslator.chat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatLayoutTest {
+
+  private static final float GUI_HEIGHT = 240.0F;
+
+  // The y coordinate just inside the n-th line from the bottom for a given line height.
+  private static float lineY(int line, float lineHeight) {
+    return GUI_HEIGHT - 40.0F - lineHeight * line - 1.0F;
+  }
+
+  @Test
+  void defaultLayout() {
+    ChatLayout layout = ChatLayout.of(GUI_HEIGHT, 1.0D, 1.0D, 0.0D, 1.0D, 0);
+    assertEquals(320, layout.wrapWidth());
+    assertEquals(20, layout.getVisibleLines());
+    assertEquals(0, layout.lineAt(10.0F, lineY(0, 9.0F)));
+    assertEquals(3, layout.lineAt(10.0F, lineY(3, 9.0F)));
+  }
+
+  @Test
+  void outsideTheChat() {
+    ChatLayout layout = ChatLayout.of(GUI_HEIGHT, 1.0D, 1.0D, 0.0D, 1.0D, 0);
+    assertEquals(-1, layout.lineAt(330.0F, lineY(0, 9.0F)));
+    assertEquals(-1, layout.lineAt(10.0F, GUI_HEIGHT - 35.0F));
+    assertEquals(-1, layout.lineAt(10.0F, lineY(20, 9.0F)));
+  }
+
+  @Test
+  void chatScaleShrinksLinesAndWidensWrapping() {
+    ChatLayout layout = ChatLayout.of(GUI_HEIGHT, 0.5D, 1.0D, 0.0D, 1.0D, 0);
+    assertEquals(640, layout.wrapWidth());
+    assertEquals(3, layout.lineAt(10.0F, lineY(3, 4.5F)));
+    // The chat keeps its on-screen width; only the text inside it shrinks.
+    assertEquals(0, layout.lineAt(300.0F, lineY(0, 4.5F)));
+    assertEquals(-1, layout.lineAt(330.0F, lineY(0, 4.5F)));
+  }
+
+  @Test
+  void chatWidthAndLineSpacing() {
+    ChatLayout narrow = ChatLayout.of(GUI_HEIGHT, 1.0D, 0.0D, 0.0D, 1.0D, 0);
+    assertEquals(40, narrow.wrapWidth());
+    assertEquals(-1, narrow.lineAt(60.0F, lineY(0, 9.0F)));
+
+    ChatLayout spaced = ChatLayout.of(GUI_HEIGHT, 1.0D, 1.0D, 1.0D, 1.0D, 0);
+    assertEquals(10, spaced.getVisibleLines());
+    assertEquals(2, spaced.lineAt(10.0F, lineY(2, 18.0F)));
+  }
+
+  @Test
+  void scrollOffsetShiftsLines() {
+    ChatLayout layout = ChatLayout.of(GUI_HEIGHT, 1.0D, 1.0D, 0.0D, 1.0D, 5);
+    assertEquals(5, layout.lineAt(10.0F, lineY(0, 9.0F)));
+    assertEquals(8, layout.lineAt(10.0F, lineY(3, 9.0F)));
+  }
+}
\ No newline at end of file
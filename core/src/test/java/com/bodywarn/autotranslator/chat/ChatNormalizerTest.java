@@ -0,0 +1,67 @@
+package com.bodywarn.autotranslator.chat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatNormalizerTest {
+
+  private final ChatNormalizer normalizer = new ChatNormalizer();
+
+  @Test
+  void stripsSenderPrefix() {
+    assertEquals("hello there", this.normalizer.normalize("<Steve> hello there"));
+    assertEquals("hello there", this.normalizer.normalize("Steve: hello there"));
+    assertEquals("hello there", this.normalizer.normalize("VIP Steve » hello there"));
+  }
+
+  @Test
+  void stripsFormattingCodesAndTags() {
+    assertEquals("hello there", this.normalizer.normalize("§a[VIP] §fSteve§7: §rhello there"));
+    assertEquals("wie geht's", this.normalizer.normalize("[Member] [DE] Steve > wie geht's"));
+  }
+
+  @Test
+  void keepsLongBracketsAndSeparatorsPastThePrefix() {
+    assertEquals("see [this is not a tag] ok", this.normalizer.normalize("see [this is not a tag] ok"));
+    // Past four words the line is no longer a possible sender prefix.
+    assertEquals("we meet at the time 10: later", this.normalizer.normalize("we meet at the time 10: later"));
+  }
+
+  @Test
+  void dropsChatTypeKeys() {
+    assertEquals("hello", this.normalizer.normalize("chat.type.text hello"));
+  }
+
+  @Test
+  void collapsesWhitespace() {
+    assertEquals("a b c", this.normalizer.normalize("  a \t b\n\n c  "));
+    assertEquals("", this.normalizer.normalize(null));
+  }
+
+  @Test
+  void reportsSender() {
+    StringBuilder sender = new StringBuilder();
+    this.normalizer.normalize("§7[VIP] Notch_99: hi", null, sender);
+    assertEquals("Notch_99", sender.toString());
+
+    this.normalizer.normalize("no prefix here at all", null, sender);
+    assertEquals("", sender.toString());
+
+    // Too short to be a Minecraft name.
+    this.normalizer.normalize("ab: hi", null, sender);
+    assertEquals("", sender.toString());
+  }
+
+  @Test
+  void usesServerProfiles() {
+    this.normalizer.setServerProfiles("play.example.net=>>|:: , other.net=->");
+    assertEquals("hello", this.normalizer.normalize("Steve >> hello", "Play.Example.NET"));
+    assertEquals("hello", this.normalizer.normalize("Steve :: hello", "play.example.net"));
+    assertEquals("Steve ~ hello", this.normalizer.normalize("Steve ~ hello", "unknown.net"));
+    assertEquals("hello", this.normalizer.normalize("Steve -> hello", "other.net"));
+
+    this.normalizer.setServerProfiles("");
+    assertEquals("hello", this.normalizer.normalize("Steve: hello", "play.example.net"));
+  }
+}
\ No newline at end of file
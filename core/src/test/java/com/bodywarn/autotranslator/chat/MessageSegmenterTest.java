@@ -0,0 +1,67 @@
+package com.bodywarn.autotranslator.chat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageSegmenterTest {
+
+  @Test
+  void splitsSentencesAndClauses() {
+    List<MessageSegmenter.Segment> segments = MessageSegmenter.split("gg wp, everyone. See you tomorrow!");
+    assertEquals(List.of("gg wp", "everyone.", "See you tomorrow!"), texts(segments));
+    assertEquals(List.of(", ", " ", ""), separators(segments));
+  }
+
+  @Test
+  void keepsNumbersAndAbbreviationsTogether() {
+    assertEquals(List.of("It costs 3.5 coins or 1,000 gems"),
+        texts(MessageSegmenter.split("It costs 3.5 coins or 1,000 gems")));
+    assertEquals(List.of("Bring food", "e.g. bread.", "Thanks"),
+        texts(MessageSegmenter.split("Bring food, e.g. bread. Thanks")));
+    assertEquals(List.of("Meet me in the U.S. office today"),
+        texts(MessageSegmenter.split("Meet me in the U.S. office today")));
+  }
+
+  @Test
+  void splitsFullWidthPunctuationWithoutSpaces() {
+    assertEquals(List.of("你好。", "我在这里"), texts(MessageSegmenter.split("你好。我在这里")));
+  }
+
+  @Test
+  void foldsShortTrailingPartsIntoTheLastSegment() {
+    assertEquals(List.of("see you later", "bye! :)"), texts(MessageSegmenter.split("see you later, bye! :)")));
+  }
+
+  @Test
+  void leavesUnpunctuatedLinesWhole() {
+    assertEquals(List.of("hello there"), texts(MessageSegmenter.split("hello there")));
+    assertEquals(List.of("?!"), texts(MessageSegmenter.split("?!")));
+  }
+
+  @Test
+  void joinRestoresSeparators() {
+    List<MessageSegmenter.Segment> segments = MessageSegmenter.split("gg wp, everyone. See you tomorrow!");
+    String joined = MessageSegmenter.join(segments, new String[]{"gg", "alle.", "Bis morgen!"});
+    assertEquals("gg, alle. Bis morgen!", joined);
+  }
+
+  private static List<String> texts(List<MessageSegmenter.Segment> segments) {
+    List<String> texts = new ArrayList<>();
+    for (MessageSegmenter.Segment segment : segments) {
+      texts.add(segment.getText());
+    }
+    return texts;
+  }
+
+  private static List<String> separators(List<MessageSegmenter.Segment> segments) {
+    List<String> separators = new ArrayList<>();
+    for (MessageSegmenter.Segment segment : segments) {
+      separators.add(segment.getSeparator());
+    }
+    return separators;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.bodywarn.autotranslator.chat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenMaskerTest {
+
+  @Test
+  void masksNamesNumbersAndLinks() {
+    TokenMasker.Masked masked = TokenMasker.mask("Steve_99 won 1,000 coins at -120 64 3.5, see https://example.net/a?b=1");
+    assertNotNull(masked);
+    assertEquals("{0} won {1} coins at {2} {3} {4}, see {5}", masked.getTemplate());
+    assertEquals("Steve_99 gewann 1,000 Münzen bei -120 64 3.5, siehe https://example.net/a?b=1",
+        masked.unmask("{0} gewann {1} Münzen bei {2} {3} {4}, siehe {5}"));
+  }
+
+  @Test
+  void sameTemplateForDifferentValues() {
+    assertEquals(TokenMasker.mask("Player_1 joined the game").getTemplate(),
+        TokenMasker.mask("xX_Pro_Xx joined the game").getTemplate());
+  }
+
+  @Test
+  void leavesPlainWordsAlone() {
+    assertNull(TokenMasker.mask("hello there everyone"));
+    // Too short for a player name, and non-ASCII words are never names.
+    assertNull(TokenMasker.mask("a1 is fine"));
+    assertNull(TokenMasker.mask("die Straße_2 ist gesperrt"));
+  }
+
+  @Test
+  void refusesLinesWithBraces() {
+    assertNull(TokenMasker.mask("use {0} with 5 items"));
+  }
+
+  @Test
+  void unmaskAcceptsPaddedAndReorderedPlaceholders() {
+    TokenMasker.Masked masked = TokenMasker.mask("Steve_1 gave 5 apples");
+    assertEquals("5 apples von Steve_1", masked.unmask("{ 1 } apples von { 0 }"));
+  }
+
+  @Test
+  void unmaskRejectsLostOrDuplicatedPlaceholders() {
+    TokenMasker.Masked masked = TokenMasker.mask("Steve_1 gave 5 apples");
+    assertNull(masked.unmask("{0} gab Äpfel"));
+    assertNull(masked.unmask("{0} gab {0} Äpfel"));
+    assertNull(masked.unmask("{0} gab {7} Äpfel {1}"));
+    assertNull(masked.unmask("{0} gab {1 Äpfel"));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.bodywarn.autotranslator.detect;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LanguageDetectorTest {
+
+  private final LanguageDetector detector = new LanguageDetector();
+
+  // Every line of the checked-in corpus must come back as its expected language.
+  @Test
+  void detectsCorpus() throws IOException {
+    List<String> failures = new ArrayList<>();
+    int lines = 0;
+
+    try (InputStream input = LanguageDetectorTest.class.getResourceAsStream("/detect/corpus.tsv")) {
+      assertNotNull(input, "missing /detect/corpus.tsv");
+      BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+
+        int tab = line.indexOf('\t');
+        String expected = line.substring(0, tab);
+        String text = line.substring(tab + 1);
+        String detected = this.detector.detect(text);
+        if (!expected.equals(detected)) {
+          failures.add(expected + " -> " + detected + ": " + text);
+        }
+        lines++;
+      }
+    }
+
+    assertTrue(lines > 40, "corpus too small: " + lines);
+    assertEquals(List.of(), failures);
+  }
+
+  @Test
+  void emptyAndNullAreUnknown() {
+    assertEquals(LanguageDetector.UNKNOWN, this.detector.detect(null));
+    assertEquals(LanguageDetector.UNKNOWN, this.detector.detect(""));
+    assertEquals(LanguageDetector.UNKNOWN, this.detector.detect("   "));
+  }
+
+  @Test
+  void ignoresCase() {
+    assertEquals("de", this.detector.detect("ICH WEISS NICHT, WIE DAS GEHT"));
+    assertEquals("en", this.detector.detect("WHERE IS THE SHOP"));
+  }
+
+  // Keywords only count as whole words: "history" must not score "is".
+  @Test
+  void matchesWholeWordsOnly() {
+    assertEquals(LanguageDetector.UNKNOWN, this.detector.detect("history"));
+  }
+
+  @Test
+  void isSafeAcrossThreads() throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    List<String> results = Collections.synchronizedList(new ArrayList<>());
+    for (int i = 0; i < 4; i++) {
+      Thread thread = new Thread(() -> {
+        for (int j = 0; j < 1000; j++) {
+          results.add(this.detector.detect(j % 2 == 0 ? "Ich bin nicht da" : "Where is the shop"));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (int i = 0; i < results.size(); i++) {
+      String result = results.get(i);
+      assertTrue(result.equals("de") || result.equals("en"), "unexpected " + result);
+    }
+  }
+}
\ No newline at end of file
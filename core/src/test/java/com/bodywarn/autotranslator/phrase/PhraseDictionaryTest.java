@@ -0,0 +1,87 @@
+package com.bodywarn.autotranslator.phrase;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhraseDictionaryTest {
+
+  @TempDir
+  Path directory;
+
+  // Runs the table load on the calling thread, so the table is ready after the first lookup.
+  private PhraseDictionary loaded(Path overrides) {
+    PhraseDictionary dictionary = new PhraseDictionary(overrides, Runnable::run);
+    assertNull(dictionary.lookup("hello", "de"), "lookups miss until the table is loaded");
+    assertTrue(dictionary.size() > 0);
+    return dictionary;
+  }
+
+  @Test
+  void translatesBundledPhrases() {
+    PhraseDictionary dictionary = this.loaded(null);
+    assertEquals("hallo", dictionary.lookup("hello", "de"));
+    assertEquals("gracias", dictionary.lookup("thx", "es"));
+    assertEquals("谢谢", dictionary.lookup("danke", "zh"));
+  }
+
+  @Test
+  void keepsCapitalisationAndTrailingPunctuation() {
+    PhraseDictionary dictionary = this.loaded(null);
+    assertEquals("Danke!", dictionary.lookup("Thanks!", "de"));
+    assertEquals("Hallo...", dictionary.lookup("Hello...", "de"));
+  }
+
+  @Test
+  void normalisesWhitespaceCaseAndApostrophes() {
+    PhraseDictionary dictionary = this.loaded(null);
+    assertEquals("Bonne nuit", dictionary.lookup("GOOD   NIGHT", "fr"));
+    assertEquals("Estoy bien", dictionary.lookup("I’m fine", "es"));
+  }
+
+  @Test
+  void returnsNativePhrasesUnchanged() {
+    PhraseDictionary dictionary = this.loaded(null);
+    assertEquals("Danke schön", dictionary.lookup("Danke schön", "de"));
+  }
+
+  @Test
+  void missesUnknownPhrasesAndTargets() {
+    PhraseDictionary dictionary = this.loaded(null);
+    assertNull(dictionary.lookup("where is the nether portal", "de"));
+    assertNull(dictionary.lookup("hello", "xx"));
+    assertNull(dictionary.lookup("hello there, this line is far too long to be a stock phrase", "de"));
+  }
+
+  @Test
+  void overridesWinOverTheBundledTable() throws IOException {
+    Path overrides = this.directory.resolve("phrases.txt");
+    Files.write(overrides, String.join("\n",
+        "# comment",
+        "de: gg = gutes Spiel",
+        "*: brb = bin gleich zurück").getBytes(StandardCharsets.UTF_8));
+
+    PhraseDictionary dictionary = this.loaded(overrides);
+    assertEquals("gutes Spiel", dictionary.lookup("gg", "de"));
+    assertEquals("bin gleich zurück", dictionary.lookup("brb", "fr"));
+  }
+
+  @Test
+  void reloadPicksUpNewOverrides() throws IOException {
+    Path overrides = this.directory.resolve("phrases.txt");
+    PhraseDictionary dictionary = this.loaded(overrides);
+    assertNull(dictionary.lookup("afk mining", "de"));
+
+    Files.write(overrides, "de: afk mining = afk am Minen".getBytes(StandardCharsets.UTF_8));
+    dictionary.reload();
+    assertEquals("afk am Minen", dictionary.lookup("afk mining", "de"));
+  }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+dependencies {
+    labyApi("api")
+    implementation(project(":core"))
+    implementation(project(":cacheserver"))
+}
+
+// The game provides the LabyMod API at runtime, so the harness puts it on its own classpath.
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Replays a chat log against local stub translation servers."
+    mainClass.set("com.bodywarn.autotranslator.loadtest.LoadTestHarness")
+    classpath = sourceSets["main"].runtimeClasspath + sourceSets["main"].compileClasspath
+    args = (project.findProperty("loadTestArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+}
\ No newline at end of file
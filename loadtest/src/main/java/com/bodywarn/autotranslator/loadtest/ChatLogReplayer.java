@@ -0,0 +1,159 @@
+package com.bodywarn.autotranslator.loadtest;
+
+import com.bodywarn.autotranslator.ChatHoverListener;
+import com.bodywarn.autotranslator.TranslationService;
+import com.bodywarn.autotranslator.chat.ChatNormalizer;
+import com.bodywarn.autotranslator.schedule.DroppedTranslationException;
+import com.bodywarn.autotranslator.settings.Language;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Feeds chat lines at a fixed rate through the listener's cleaning and filtering into the
+// service, and times each line from arrival until its hover text is ready.
+public final class ChatLogReplayer {
+
+  private static final long DRAIN_TIMEOUT_SECONDS = 30L;
+
+  private final List<String> lines;
+  private final ChatNormalizer normalizer = new ChatNormalizer();
+
+  private final LongAdder skipped = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder untranslated = new LongAdder();
+  private final AtomicInteger cursor = new AtomicInteger();
+  private final AtomicInteger outstanding = new AtomicInteger();
+
+  private long[] latencies = new long[1024];
+  private int latencyCount;
+
+  public ChatLogReplayer(List<String> lines) {
+    this.lines = lines;
+  }
+
+  public Result replay(TranslationService service, Language target, double messagesPerSecond,
+      long durationSeconds, boolean hover) throws InterruptedException {
+    ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor();
+    long periodNanos = Math.max(1L, (long) (1_000_000_000L / messagesPerSecond));
+    long started = System.nanoTime();
+
+    clock.scheduleAtFixedRate(() -> this.submit(service, target, hover), 0L, periodNanos, TimeUnit.NANOSECONDS);
+    Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+    clock.shutdownNow();
+    long submitted = this.cursor.get();
+
+    long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+    while (this.outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+      Thread.sleep(50L);
+    }
+    boolean drained = this.outstanding.get() == 0;
+
+    long elapsedNanos = System.nanoTime() - started;
+    synchronized (this) {
+      long[] sorted = Arrays.copyOf(this.latencies, this.latencyCount);
+      Arrays.sort(sorted);
+      return new Result(submitted, this.skipped.sum(), this.dropped.sum(), this.untranslated.sum(),
+          sorted, elapsedNanos, drained);
+    }
+  }
+
+  private void submit(TranslationService service, Language target, boolean hover) {
+    String raw = this.lines.get(Math.floorMod(this.cursor.getAndIncrement(), this.lines.size()));
+    String cleaned = this.normalizer.normalize(raw);
+    if (!ChatHoverListener.shouldTranslate(cleaned, service, target)) {
+      this.skipped.increment();
+      return;
+    }
+
+    long start = System.nanoTime();
+    this.outstanding.incrementAndGet();
+    service.translateAsync(cleaned, target, hover).whenComplete((result, throwable) -> {
+      Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+      if (cause instanceof DroppedTranslationException) {
+        this.dropped.increment();
+      } else {
+        if (cause != null || cleaned.equals(result)) {
+          this.untranslated.increment();
+        }
+        this.record(System.nanoTime() - start);
+      }
+      this.outstanding.decrementAndGet();
+    });
+  }
+
+  private synchronized void record(long nanos) {
+    if (this.latencyCount == this.latencies.length) {
+      this.latencies = Arrays.copyOf(this.latencies, this.latencyCount * 2);
+    }
+    this.latencies[this.latencyCount++] = nanos;
+  }
+
+  public static final class Result {
+
+    private final long submitted;
+    private final long skipped;
+    private final long dropped;
+    private final long untranslated;
+    private final long[] sortedLatencies;
+    private final long elapsedNanos;
+    private final boolean drained;
+
+    private Result(long submitted, long skipped, long dropped, long untranslated, long[] sortedLatencies,
+        long elapsedNanos, boolean drained) {
+      this.submitted = submitted;
+      this.skipped = skipped;
+      this.dropped = dropped;
+      this.untranslated = untranslated;
+      this.sortedLatencies = sortedLatencies;
+      this.elapsedNanos = elapsedNanos;
+      this.drained = drained;
+    }
+
+    public long getSubmitted() {
+      return submitted;
+    }
+
+    public long getSkipped() {
+      return skipped;
+    }
+
+    public long getDropped() {
+      return dropped;
+    }
+
+    public long getUntranslated() {
+      return untranslated;
+    }
+
+    public long getCompleted() {
+      return sortedLatencies.length;
+    }
+
+    public boolean isDrained() {
+      return drained;
+    }
+
+    public double getThroughput() {
+      return sortedLatencies.length / (elapsedNanos / 1_000_000_000.0D);
+    }
+
+    public double getDropRate() {
+      long translated = submitted - skipped;
+      return translated == 0L ? 0.0D : (double) dropped / translated;
+    }
+
+    public double percentileMillis(double percentile) {
+      if (sortedLatencies.length == 0) {
+        return 0.0D;
+      }
+      int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+      return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, index))] / 1_000_000.0D;
+    }
+  }
+}
\ No newline at end of file
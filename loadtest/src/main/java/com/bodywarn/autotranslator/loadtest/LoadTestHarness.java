@@ -0,0 +1,212 @@
+package com.bodywarn.autotranslator.loadtest;
+
+import com.bodywarn.autotranslator.TranslationService;
+import com.bodywarn.autotranslator.backend.BackendEndpoints;
+import com.bodywarn.autotranslator.backend.BackendHealth;
+import com.bodywarn.autotranslator.cacheserver.SharedCacheServer;
+import com.bodywarn.autotranslator.settings.Language;
+import com.bodywarn.autotranslator.settings.TranslatorAddon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Replays a chat log against loopback Lingva and Google stubs, entirely offline.
+//
+//   ./gradlew :loadtest:loadTest -PloadTestArgs="--rate=40 --duration=60 --dead=1 --errors=0.05"
+//
+// Options: --log=<file> (one raw chat line per line, '#' comments), --rate=<lines/s>,
+// --duration=<s>, --target=<EN|DE|...>, --lingva=<instances>, --dead=<hung instances>,
+// --latency=<median ms>, --sigma=<log-normal spread>, --errors=<rate>, --throttle=<429 rate>,
+// --google-latency=<median ms>, --hover (send every line as a priority hover request),
+// --batch=<bool>, --mask=<bool>, --segments=<bool>, --hedge=<bool>, --queue=<capacity>, --rps=<per backend>, --verbose,
+// --clients=<n> (replay the log once per client, one after another, each with empty local caches),
+// --shared-cache (start an in-process shared cache service and point every client at it).
+public final class LoadTestHarness {
+
+  private static final String SAMPLE_LOG = "/chat-sample.log";
+
+  private LoadTestHarness() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = parseOptions(args);
+
+    List<String> lines = readLog(options.get("log"));
+    double rate = Double.parseDouble(options.getOrDefault("rate", "20"));
+    long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+    Language target = Language.valueOf(options.getOrDefault("target", "EN").toUpperCase(Locale.ROOT));
+    int lingvaCount = Integer.parseInt(options.getOrDefault("lingva", "3"));
+    int deadCount = Integer.parseInt(options.getOrDefault("dead", "0"));
+    boolean hover = options.containsKey("hover");
+    int clients = Integer.parseInt(options.getOrDefault("clients", "1"));
+
+    StubBehaviour lingvaBehaviour = new StubBehaviour(
+        Long.parseLong(options.getOrDefault("latency", "120")),
+        Double.parseDouble(options.getOrDefault("sigma", "0.5")),
+        Double.parseDouble(options.getOrDefault("errors", "0.02")),
+        Double.parseDouble(options.getOrDefault("throttle", "0.01")),
+        false
+    );
+    StubBehaviour googleBehaviour = new StubBehaviour(
+        Long.parseLong(options.getOrDefault("google-latency", "250")), 0.3D, 0.0D, 0.0D, false);
+
+    List<StubTranslationServer> servers = new ArrayList<>();
+    List<String> lingvaUrls = new ArrayList<>();
+    for (int i = 0; i < lingvaCount; i++) {
+      StubTranslationServer server = new StubTranslationServer("lingva-" + i, StubTranslationServer.Protocol.LINGVA,
+          i < deadCount ? lingvaBehaviour.asDead() : lingvaBehaviour);
+      server.start();
+      servers.add(server);
+      lingvaUrls.add(server.baseUrl());
+    }
+    StubTranslationServer google = new StubTranslationServer("google", StubTranslationServer.Protocol.GOOGLE,
+        googleBehaviour);
+    google.start();
+    servers.add(google);
+
+    TranslatorAddon config = new TranslatorAddon();
+    config.persistentCache().set(false);
+    config.batchRequests().set(Boolean.parseBoolean(options.getOrDefault("batch", "true")));
+    config.maskTokens().set(Boolean.parseBoolean(options.getOrDefault("mask", "true")));
+    config.segmentCache().set(Boolean.parseBoolean(options.getOrDefault("segments", "false")));
+    config.hedgeRequests().set(Boolean.parseBoolean(options.getOrDefault("hedge", "true")));
+    config.queueCapacity().set(Integer.parseInt(options.getOrDefault("queue", "50")));
+    config.backendRateLimit().set(Integer.parseInt(options.getOrDefault("rps", "3")));
+
+    SharedCacheServer sharedCache = null;
+    if (options.containsKey("shared-cache")) {
+      sharedCache = SharedCacheServer.local(100_000);
+      sharedCache.start();
+      config.sharedCacheUrl().set(sharedCache.baseUrl());
+    }
+
+    PrintStream console = System.out;
+    console.printf("Replaying %d chat lines at %.1f/s for %ds (%s)%s%n", lines.size(), rate, duration,
+        hover ? "hover priority" : "eager", clients > 1 ? " for " + clients + " clients" : "");
+    if (!options.containsKey("verbose")) {
+      System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    List<Long> callsPerClient = new ArrayList<>();
+    long callsBefore = 0L;
+    ChatLogReplayer.Result result = null;
+    TranslationService service = null;
+    try {
+      for (int client = 0; client < clients; client++) {
+        if (service != null) {
+          service.shutdown();
+        }
+
+        Path dataDirectory = Files.createTempDirectory("autotranslator-loadtest");
+        service = new TranslationService(config, dataDirectory, new BackendEndpoints(lingvaUrls, google.baseUrl()));
+        result = new ChatLogReplayer(lines).replay(service, target, rate, duration, hover);
+
+        long calls = servers.stream().mapToLong(StubTranslationServer::getRequests).sum();
+        callsPerClient.add(calls - callsBefore);
+        callsBefore = calls;
+      }
+    } finally {
+      System.setOut(console);
+    }
+
+    printReport(console, result, service, servers);
+    if (clients > 1) {
+      console.printf("Calls per client    %s%n", callsPerClient);
+    }
+    if (sharedCache != null) {
+      console.printf("Shared cache        entries=%d, lookups=%d, hits=%d, stores=%d%n", sharedCache.size(),
+          sharedCache.getLookups(), sharedCache.getHits(), sharedCache.getStores());
+    }
+
+    service.shutdown();
+    if (sharedCache != null) {
+      sharedCache.stop();
+    }
+    for (StubTranslationServer server : servers) {
+      server.stop();
+    }
+  }
+
+  private static void printReport(PrintStream out, ChatLogReplayer.Result result, TranslationService service,
+      List<StubTranslationServer> servers) {
+    out.println();
+    out.printf("Lines submitted     %d (%d skipped by the chat filter)%n", result.getSubmitted(), result.getSkipped());
+    out.printf("Completed           %d%s%n", result.getCompleted(), result.isDrained() ? "" : " (not drained)");
+    out.printf("Throughput          %.1f lines/s%n", result.getThroughput());
+    out.printf("Hover latency       p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms%n",
+        result.percentileMillis(0.5D), result.percentileMillis(0.99D), result.percentileMillis(0.999D),
+        result.percentileMillis(1.0D));
+    out.printf("Dropped             %d (%.2f%%)%n", result.getDropped(), result.getDropRate() * 100.0D);
+    out.printf("Returned unchanged  %d%n", result.getUntranslated());
+    out.printf("Coalesced / batched %d / %d%n", service.getCoalescedRequests(), service.getBatchedLines());
+    out.printf("Cache               %s%n", service.getCacheStats());
+
+    long backendCalls = 0L;
+    out.println();
+    for (StubTranslationServer server : servers) {
+      backendCalls += server.getRequests();
+      out.printf("%-10s %6d calls, %4d errors, %4d throttled  [%s]%n", server.getName(), server.getRequests(),
+          server.getErrors(), server.getThrottled(), server.getBehaviour());
+    }
+    out.printf("Backend calls       %d total%n", backendCalls);
+
+    out.println();
+    for (BackendHealth.BackendStatus status : service.getBackendStatus()) {
+      out.println(status);
+    }
+  }
+
+  private static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--")) {
+        throw new IllegalArgumentException("Unexpected argument: " + arg);
+      }
+
+      int equals = arg.indexOf('=');
+      if (equals < 0) {
+        options.put(arg.substring(2), "true");
+      } else {
+        options.put(arg.substring(2, equals), arg.substring(equals + 1));
+      }
+    }
+    return options;
+  }
+
+  private static List<String> readLog(String file) throws IOException {
+    InputStream input = file == null
+        ? LoadTestHarness.class.getResourceAsStream(SAMPLE_LOG)
+        : Files.newInputStream(Paths.get(file));
+    if (input == null) {
+      throw new IOException("Missing " + SAMPLE_LOG);
+    }
+
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          lines.add(line);
+        }
+      }
+    }
+
+    if (lines.isEmpty()) {
+      throw new IOException("Chat log is empty");
+    }
+    return lines;
+  }
+}
\ No newline at end of file
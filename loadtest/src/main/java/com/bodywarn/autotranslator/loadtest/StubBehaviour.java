@@ -0,0 +1,54 @@
+package com.bodywarn.autotranslator.loadtest;
+
+import java.util.Random;
+
+// How a stub server misbehaves: log-normal latency around a median, random 500s and 429s, or
+// a dead instance that holds every request past the client timeout.
+public final class StubBehaviour {
+
+  private static final long DEAD_HOLD_MILLIS = 10_000L;
+
+  private final long medianLatencyMillis;
+  private final double latencySigma;
+  private final double errorRate;
+  private final double throttleRate;
+  private final boolean dead;
+
+  public StubBehaviour(long medianLatencyMillis, double latencySigma, double errorRate,
+      double throttleRate, boolean dead) {
+    this.medianLatencyMillis = medianLatencyMillis;
+    this.latencySigma = latencySigma;
+    this.errorRate = errorRate;
+    this.throttleRate = throttleRate;
+    this.dead = dead;
+  }
+
+  public StubBehaviour asDead() {
+    return new StubBehaviour(medianLatencyMillis, latencySigma, errorRate, throttleRate, true);
+  }
+
+  public long sampleLatencyMillis(Random random) {
+    if (dead) {
+      return DEAD_HOLD_MILLIS;
+    }
+    return Math.round(medianLatencyMillis * Math.exp(latencySigma * random.nextGaussian()));
+  }
+
+  public boolean isDead() {
+    return dead;
+  }
+
+  public double getErrorRate() {
+    return errorRate;
+  }
+
+  public double getThrottleRate() {
+    return throttleRate;
+  }
+
+  @Override
+  public String toString() {
+    return dead ? "dead" : String.format("median=%dms, sigma=%.2f, errors=%.1f%%, throttled=%.1f%%",
+        medianLatencyMillis, latencySigma, errorRate * 100.0D, throttleRate * 100.0D);
+  }
+}
\ No newline at end of file
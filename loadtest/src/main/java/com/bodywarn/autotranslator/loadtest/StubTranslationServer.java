@@ -0,0 +1,197 @@
+package com.bodywarn.autotranslator.loadtest;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Loopback server speaking just enough of the Lingva or Google protocol for the backends.
+// Translations are the input with every line prefixed by "[target] ".
+public final class StubTranslationServer {
+
+  public enum Protocol {
+    LINGVA,
+    GOOGLE
+  }
+
+  private final String name;
+  private final Protocol protocol;
+  private final StubBehaviour behaviour;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder throttled = new LongAdder();
+
+  private HttpServer server;
+  private ExecutorService executor;
+
+  public StubTranslationServer(String name, Protocol protocol, StubBehaviour behaviour) {
+    this.name = name;
+    this.protocol = protocol;
+    this.behaviour = behaviour;
+  }
+
+  public void start() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "Stub-" + this.name);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/", this::handle);
+    this.server.start();
+  }
+
+  public void stop() {
+    this.server.stop(0);
+    this.executor.shutdownNow();
+  }
+
+  public String baseUrl() {
+    String host = "http://127.0.0.1:" + this.server.getAddress().getPort();
+    return this.protocol == Protocol.LINGVA ? host + "/api/v1" : host + "/translate_a/single";
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public StubBehaviour getBehaviour() {
+    return behaviour;
+  }
+
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  public long getThrottled() {
+    return throttled.sum();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    this.requests.increment();
+    Random random = ThreadLocalRandom.current();
+
+    try {
+      Thread.sleep(this.behaviour.sampleLatencyMillis(random));
+    } catch (InterruptedException e) {
+      exchange.close();
+      return;
+    }
+
+    if (this.behaviour.isDead()) {
+      exchange.close();
+      return;
+    }
+
+    if (random.nextDouble() < this.behaviour.getThrottleRate()) {
+      this.throttled.increment();
+      this.sendEmpty(exchange, 429);
+      return;
+    }
+
+    if (random.nextDouble() < this.behaviour.getErrorRate()) {
+      this.errors.increment();
+      this.sendEmpty(exchange, 500);
+      return;
+    }
+
+    String[] request = this.protocol == Protocol.LINGVA
+        ? parseLingvaPath(exchange.getRequestURI().getRawPath())
+        : parseGoogleQuery(exchange.getRequestURI().getRawQuery());
+    if (request == null) {
+      this.sendEmpty(exchange, 400);
+      return;
+    }
+
+    String[] lines = request[2].split("\n", -1);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(200, 0);
+
+    try (Writer body = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+        JsonWriter json = new JsonWriter(body)) {
+      if (this.protocol == Protocol.LINGVA) {
+        StringBuilder translation = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+          translation.append(i > 0 ? "\n" : "").append('[').append(request[1]).append("] ").append(lines[i]);
+        }
+        json.beginObject().name("translation").value(translation.toString()).endObject();
+      } else {
+        // Google returns one segment per line, each carrying its own newline.
+        json.beginArray().beginArray();
+        for (int i = 0; i < lines.length; i++) {
+          String newline = i < lines.length - 1 ? "\n" : "";
+          json.beginArray()
+              .value("[" + request[1] + "] " + lines[i] + newline)
+              .value(lines[i] + newline)
+              .nullValue().nullValue().value(10)
+              .endArray();
+        }
+        json.endArray().nullValue().value(request[0]).endArray();
+      }
+    }
+  }
+
+  private void sendEmpty(HttpExchange exchange, int status) throws IOException {
+    exchange.sendResponseHeaders(status, -1);
+    exchange.close();
+  }
+
+  // /api/v1/{source}/{target}/{text}
+  private static String[] parseLingvaPath(String rawPath) {
+    String[] parts = rawPath.split("/", 6);
+    if (parts.length < 6) {
+      return null;
+    }
+    return new String[]{parts[3], parts[4], URLDecoder.decode(parts[5].replace("+", "%2B"), StandardCharsets.UTF_8)};
+  }
+
+  private static String[] parseGoogleQuery(String rawQuery) {
+    if (rawQuery == null) {
+      return null;
+    }
+
+    String source = null;
+    String target = null;
+    String text = null;
+    for (String pair : rawQuery.split("&")) {
+      int equals = pair.indexOf('=');
+      if (equals < 0) {
+        continue;
+      }
+
+      String value = URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+      switch (pair.substring(0, equals)) {
+        case "sl":
+          source = value;
+          break;
+        case "tl":
+          target = value;
+          break;
+        case "q":
+          text = value;
+          break;
+        default:
+          break;
+      }
+    }
+
+    return source == null || target == null || text == null ? null : new String[]{source, target, text};
+  }
+}
\ No newline at end of file
@@ -21,3 +21,7 @@ plugins.apply("net.labymod.labygradle.settings")
 
 include(":api")
 include(":core")
+include(":loadtest")
+include(":benchmark")
+include(":cacheprotocol")
+include(":cacheserver")
\ No newline at end of file